@@ -1,27 +1,57 @@
 package engine.core;
 
 import game.states.BedroomDemoState;
+import game.states.ClientGameState;
+import engine.graphics.RenderEngine;
 import engine.input.InputManager;
 
+import java.net.InetSocketAddress;
+import java.util.function.BiFunction;
+
 public class GameEngine {
     private final StateManager stateManager = new StateManager();
     private final InputManager inputManager = new InputManager();
+    // One render backend for the whole engine, handed to every state instead of each state opening its own
+    private final RenderEngine renderEngine = new RenderEngine(inputManager);
+    private final BiFunction<InputManager, RenderEngine, GameState> initialState;
     private boolean running = false;
     
+    public GameEngine() {
+        this(BedroomDemoState::new);
+    }
+    
+    public GameEngine(BiFunction<InputManager, RenderEngine, GameState> initialState) {
+        this.initialState = initialState;
+    }
+    
     public void run() {
-        System.out.println("🚀 2D RPG Engine Starting - Bedroom Awakening Demo!");
+        Logger.info("🚀 2D RPG Engine Starting - Bedroom Awakening Demo!");
         init();
         loop();
         cleanup();
     }
     
     private void init() {
-        System.out.println("⚙️  Engine initialized");
-        
+        long start = System.nanoTime();
         inputManager.init();
+        StartupTimeline.span("input init", start);
         
-        // Start with bedroom demo state
-        stateManager.pushState(new BedroomDemoState(inputManager));
+        // The window opens on its own thread while the first state preloads on the loader thread
+        renderEngine.initAsync();
+        Logger.info("⚙️  Engine initialized");
+        
+        stateManager.setTransitionListener(new StateManager.TransitionListener() {
+            @Override
+            public void onLoadingStarted(GameState next) {
+                Logger.info("⏳ Loading {}...", next.getClass().getSimpleName());
+            }
+        });
+        
+        // Start with bedroom demo state (or a network client), built off the game thread
+        start = System.nanoTime();
+        GameState first = initialState.apply(inputManager, renderEngine);
+        StartupTimeline.span("construct " + first.getClass().getSimpleName(), start);
+        stateManager.pushStateAsync(first);
         
         running = true;
     }
@@ -34,13 +64,16 @@ public class GameEngine {
             
             // Check for ESC key to quit
             if (inputManager.isKeyPressed(27)) {
-                System.out.println("👋 ESC pressed - Quitting game");
+                Logger.info("👋 ESC pressed - Quitting game");
                 running = false;
                 break;
             }
             
             stateManager.update(deltaTime);
             stateManager.render();
+            if (!StartupTimeline.isFinished() && stateManager.hasActiveState()) {
+                StartupTimeline.finish();
+            }
             
             try {
                 Thread.sleep(16); // ~60 FPS
@@ -52,10 +85,20 @@ public class GameEngine {
     }
     
     private void cleanup() {
-        System.out.println("🏁 Engine shutdown - Thanks for playing!");
+        stateManager.shutdown();
+        Logger.info("🏁 Engine shutdown - Thanks for playing!");
+        Logger.shutdown();
     }
     
     public static void main(String[] args) {
-        new GameEngine().run();
+        StartupTimeline.mark("main");
+        // --connect host:port joins a WorldServer as a thin client instead of running the local demo
+        if (args.length == 2 && args[0].equals("--connect")) {
+            String[] hostPort = args[1].split(":");
+            var server = new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1]));
+            new GameEngine((input, render) -> new ClientGameState(input, render, server)).run();
+        } else {
+            new GameEngine().run();
+        }
     }
 }
@@ -1,8 +1,13 @@
 package engine.core;
 
 public interface GameState {
+    // Heavy loading (maps, entities, systems); may run on a worker thread before enter(), must not touch the window
+    default void preload() {}
     void enter();
     void update(float deltaTime);
     void render();
+    // Popped states are kept suspended and resumed instead of re-entered; exit() runs when the state is discarded
+    default void suspend() {}
+    default void resume() {}
     void exit();
 }
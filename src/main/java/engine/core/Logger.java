@@ -0,0 +1,199 @@
+package engine.core;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Callers only claim a preallocated slot and store references; formatting and I/O happen on the logger thread.
+// Arguments are kept by reference until written, so pass immutable values.
+public final class Logger {
+
+    public enum Level {
+        DEBUG,
+        INFO,
+        WARN,
+        ERROR
+    }
+
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private static final class Entry {
+        Level level;
+        long timeMillis;
+        String thread;
+        String pattern;
+        int argCount;
+        Object arg0, arg1, arg2;
+    }
+
+    private static final Entry[] entries = new Entry[CAPACITY];
+    // Per-slot sequence numbers: a bounded multi-producer, single-consumer queue
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong tail = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static long head = 0;
+    private static long droppedReported = 0;
+
+    private static volatile Level threshold = Level.INFO;
+    private static volatile PrintStream output = System.out;
+    private static volatile boolean running = true;
+    private static final Thread writer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        writer = new Thread(Logger::drainLoop, "engine-logger");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private Logger() {}
+
+    public static void setLevel(Level level) { threshold = level; }
+    public static void setOutput(PrintStream stream) { output = stream; }
+    public static boolean isEnabled(Level level) { return level.ordinal() >= threshold.ordinal(); }
+    public static long getDroppedCount() { return dropped.get(); }
+
+    public static void debug(String pattern) { log(Level.DEBUG, pattern, 0, null, null, null); }
+    public static void debug(String pattern, Object a) { log(Level.DEBUG, pattern, 1, a, null, null); }
+    public static void debug(String pattern, Object a, Object b) { log(Level.DEBUG, pattern, 2, a, b, null); }
+    public static void debug(String pattern, Object a, Object b, Object c) { log(Level.DEBUG, pattern, 3, a, b, c); }
+
+    public static void info(String pattern) { log(Level.INFO, pattern, 0, null, null, null); }
+    public static void info(String pattern, Object a) { log(Level.INFO, pattern, 1, a, null, null); }
+    public static void info(String pattern, Object a, Object b) { log(Level.INFO, pattern, 2, a, b, null); }
+    public static void info(String pattern, Object a, Object b, Object c) { log(Level.INFO, pattern, 3, a, b, c); }
+
+    public static void warn(String pattern) { log(Level.WARN, pattern, 0, null, null, null); }
+    public static void warn(String pattern, Object a) { log(Level.WARN, pattern, 1, a, null, null); }
+    public static void warn(String pattern, Object a, Object b) { log(Level.WARN, pattern, 2, a, b, null); }
+
+    public static void error(String pattern) { log(Level.ERROR, pattern, 0, null, null, null); }
+    public static void error(String pattern, Object a) { log(Level.ERROR, pattern, 1, a, null, null); }
+    public static void error(String pattern, Object a, Object b) { log(Level.ERROR, pattern, 2, a, b, null); }
+
+    private static void log(Level level, String pattern, int argCount, Object a, Object b, Object c) {
+        if (!isEnabled(level)) return;
+
+        long position = tail.get();
+        while (true) {
+            long available = sequences.get((int) (position & MASK)) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) break;
+                position = tail.get();
+            } else if (available < 0) {
+                // Buffer full: never block the caller, just count the loss
+                dropped.incrementAndGet();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        int index = (int) (position & MASK);
+        Entry entry = entries[index];
+        entry.level = level;
+        entry.timeMillis = System.currentTimeMillis();
+        entry.thread = Thread.currentThread().getName();
+        entry.pattern = pattern;
+        entry.argCount = argCount;
+        entry.arg0 = a;
+        entry.arg1 = b;
+        entry.arg2 = c;
+        sequences.lazySet(index, position + 1);
+    }
+
+    // Stops the writer after it has drained everything already logged
+    public static void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drainLoop() {
+        StringBuilder batch = new StringBuilder(16 * 1024);
+        while (true) {
+            boolean stopping = !running;
+            int written = drainBatch(batch);
+
+            long lost = dropped.get();
+            if (lost != droppedReported) {
+                batch.append("WARN  [engine-logger] ").append(lost - droppedReported)
+                     .append(" log entries dropped, buffer full").append(System.lineSeparator());
+                droppedReported = lost;
+            }
+
+            if (batch.length() > 0) {
+                PrintStream stream = output;
+                stream.print(batch);
+                stream.flush();
+                batch.setLength(0);
+            }
+
+            if (written == 0) {
+                if (stopping) return;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private static int drainBatch(StringBuilder batch) {
+        int written = 0;
+        while (written < BATCH_SIZE) {
+            int index = (int) (head & MASK);
+            if (sequences.get(index) != head + 1) break;
+
+            Entry entry = entries[index];
+            format(batch, entry);
+            entry.pattern = null;
+            entry.arg0 = entry.arg1 = entry.arg2 = null;
+            sequences.lazySet(index, head + CAPACITY);
+            head++;
+            written++;
+        }
+        return written;
+    }
+
+    private static void format(StringBuilder out, Entry entry) {
+        long millisOfDay = entry.timeMillis % 86_400_000L;
+        appendPadded(out, millisOfDay / 3_600_000L, 2).append(':');
+        appendPadded(out, millisOfDay / 60_000L % 60, 2).append(':');
+        appendPadded(out, millisOfDay / 1000L % 60, 2).append('.');
+        appendPadded(out, millisOfDay % 1000L, 3).append(' ');
+
+        String level = entry.level.name();
+        out.append(level);
+        for (int i = level.length(); i < 6; i++) out.append(' ');
+        out.append('[').append(entry.thread).append("] ");
+
+        String pattern = entry.pattern;
+        int arg = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '{' && i + 1 < pattern.length() && pattern.charAt(i + 1) == '}' && arg < entry.argCount) {
+                out.append(arg == 0 ? entry.arg0 : arg == 1 ? entry.arg1 : entry.arg2);
+                arg++;
+                i++;
+            } else {
+                out.append(c);
+            }
+        }
+        out.append(System.lineSeparator());
+    }
+
+    private static StringBuilder appendPadded(StringBuilder out, long value, int width) {
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < width; i++) out.append('0');
+        return out.append(digits);
+    }
+}
@@ -0,0 +1,71 @@
+package engine.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// Records startup phases from JVM launch to the first presented frame, from whichever thread runs them.
+// Closes itself at finish(), so later state switches don't keep growing it.
+public final class StartupTimeline {
+    
+    private record Entry(String label, String thread, long startNanos, long endNanos) {}
+    
+    // nanoTime value corresponding to the moment the JVM process started
+    private static final long ORIGIN_NANOS = processStartNanos();
+    private static final List<Entry> entries = new ArrayList<>();
+    private static boolean finished = false;
+    
+    private StartupTimeline() {}
+    
+    public static void mark(String event) {
+        long now = System.nanoTime();
+        record(event, now, now);
+    }
+    
+    // A phase that began at startNanos (from System.nanoTime) and ends now
+    public static void span(String phase, long startNanos) {
+        record(phase, startNanos, System.nanoTime());
+    }
+    
+    private static synchronized void record(String label, long start, long end) {
+        if (!finished) {
+            entries.add(new Entry(label, Thread.currentThread().getName(), start, end));
+        }
+    }
+    
+    public static synchronized boolean isFinished() {
+        return finished;
+    }
+    
+    // Marks the first frame and logs the whole timeline once
+    public static void finish() {
+        mark("first frame");
+        List<Entry> snapshot;
+        synchronized (StartupTimeline.class) {
+            if (finished) return;
+            finished = true;
+            snapshot = new ArrayList<>(entries);
+        }
+        
+        snapshot.sort(Comparator.comparingLong(Entry::startNanos));
+        StringBuilder report = new StringBuilder("⏱️  Startup timeline (ms since JVM start, duration, phase, thread):");
+        for (Entry entry : snapshot) {
+            report.append(System.lineSeparator()).append(String.format(Locale.ROOT, "%10.1f %9.1f  %-32s %s",
+                (entry.startNanos() - ORIGIN_NANOS) / 1e6, (entry.endNanos() - entry.startNanos()) / 1e6,
+                entry.label(), entry.thread()));
+        }
+        Entry last = snapshot.get(snapshot.size() - 1);
+        report.append(System.lineSeparator()).append(String.format(Locale.ROOT, "Time to first frame: %.1f ms",
+            (last.endNanos() - ORIGIN_NANOS) / 1e6));
+        Logger.info(report.toString());
+    }
+    
+    private static long processStartNanos() {
+        long now = System.nanoTime();
+        long sinceStartMillis = ProcessHandle.current().info().startInstant()
+            .map(start -> System.currentTimeMillis() - start.toEpochMilli())
+            .orElse(0L);
+        return now - sinceStartMillis * 1_000_000L;
+    }
+}
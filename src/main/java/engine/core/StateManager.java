@@ -1,22 +1,125 @@
 package engine.core;
 
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class StateManager {
-    private final Stack<GameState> states = new Stack<>();
+    private static final int DEFAULT_SUSPENDED_CAPACITY = 4;
+    
+    public interface TransitionListener {
+        default void onLoadingStarted(GameState next) {}
+        // Called once per rendered frame while the next state is preloading
+        default void onLoading(GameState next, float elapsedSeconds) {}
+        default void onTransition(GameState from, GameState to) {}
+    }
+    
+    private final Deque<GameState> states = new ArrayDeque<>();
+    private final Deque<GameState> suspended = new ArrayDeque<>();
+    private final Set<GameState> entered = Collections.newSetFromMap(new IdentityHashMap<>());
+    // exit() keeps what preload() built, so an instance is preloaded at most once; rebuilding means a new instance.
+    // Weak, so discarded states can still be collected.
+    private final Set<GameState> preloaded = Collections.newSetFromMap(new WeakHashMap<>());
+    private final int suspendedCapacity;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "state-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private TransitionListener listener = new TransitionListener() {};
+    private GameState loading = null;
+    private Future<?> loadingTask = null;
+    private long loadingStartNanos = 0;
+    
+    public StateManager() {
+        this(DEFAULT_SUSPENDED_CAPACITY);
+    }
+    
+    public StateManager(int suspendedCapacity) {
+        this.suspendedCapacity = suspendedCapacity;
+    }
+    
+    public void setTransitionListener(TransitionListener listener) {
+        this.listener = listener;
+    }
     
     public void pushState(GameState state) {
-        state.enter();
-        states.push(state);
+        if (state == loading) {
+            throw new IllegalStateException("Still loading " + state.getClass().getSimpleName());
+        }
+        suspended.remove(state);
+        if (!preloaded.contains(state)) {
+            long start = System.nanoTime();
+            state.preload();
+            preloaded.add(state);
+            StartupTimeline.span("preload " + state.getClass().getSimpleName(), start);
+        }
+        activate(state);
+    }
+    
+    // Preloads on the loader thread while the current state keeps updating and rendering
+    public void pushStateAsync(GameState state) {
+        if (isLoading()) {
+            throw new IllegalStateException("Already loading " + loading.getClass().getSimpleName());
+        }
+        if (suspended.remove(state) || preloaded.contains(state)) {
+            activate(state);
+            return;
+        }
+        
+        loading = state;
+        loadingStartNanos = System.nanoTime();
+        loadingTask = loader.submit(() -> {
+            long start = System.nanoTime();
+            state.preload();
+            StartupTimeline.span("preload " + state.getClass().getSimpleName(), start);
+        });
+        listener.onLoadingStarted(state);
     }
     
     public void popState() {
         if (!states.isEmpty()) {
-            states.pop().exit();
+            GameState state = states.pop();
+            state.suspend();
+            suspended.push(state);
+            
+            if (suspended.size() > suspendedCapacity) {
+                discard(suspended.removeLast());
+            }
+            listener.onTransition(state, states.peek());
+        }
+    }
+    
+    public <T extends GameState> T findSuspended(Class<T> type) {
+        for (GameState state : suspended) {
+            if (type.isInstance(state)) {
+                return type.cast(state);
+            }
         }
+        return null;
+    }
+    
+    public boolean hasActiveState() {
+        return !states.isEmpty();
+    }
+    
+    public boolean isLoading() {
+        return loading != null;
     }
     
     public void update(float deltaTime) {
+        if (loading != null && loadingTask.isDone()) {
+            finishLoading();
+        }
+        
         if (!states.isEmpty()) {
             states.peek().update(deltaTime);
         }
@@ -26,5 +129,63 @@ public class StateManager {
         if (!states.isEmpty()) {
             states.peek().render();
         }
+        if (loading != null) {
+            listener.onLoading(loading, (System.nanoTime() - loadingStartNanos) / 1_000_000_000f);
+        }
+    }
+    
+    public void shutdown() {
+        loader.shutdownNow();
+        while (!states.isEmpty()) {
+            discard(states.pop());
+        }
+        while (!suspended.isEmpty()) {
+            discard(suspended.pop());
+        }
+    }
+    
+    private void finishLoading() {
+        GameState state = loading;
+        Future<?> task = loadingTask;
+        loading = null;
+        loadingTask = null;
+        
+        try {
+            task.get();
+            preloaded.add(state);
+            activate(state);
+        } catch (ExecutionException e) {
+            Logger.error("Failed to preload {}: {}", state.getClass().getSimpleName(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void activate(GameState state) {
+        GameState previous = states.peek();
+        if (previous == state) return;
+        // Already stacked: move it to the top rather than stacking a duplicate. States below the top were
+        // never suspended, so there is nothing to resume.
+        if (states.remove(state)) {
+            states.push(state);
+            listener.onTransition(previous, state);
+            return;
+        }
+        
+        if (entered.contains(state)) {
+            state.resume();
+        } else {
+            long start = System.nanoTime();
+            state.enter();
+            entered.add(state);
+            StartupTimeline.span("enter " + state.getClass().getSimpleName(), start);
+        }
+        states.push(state);
+        listener.onTransition(previous, state);
+    }
+    
+    private void discard(GameState state) {
+        entered.remove(state);
+        state.exit();
     }
 }
@@ -0,0 +1,249 @@
+package engine.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Records which entities had which component types added, replaced with a different value, or removed.
+// Consumers register a Reader and poll the entities changed since their last poll instead of rescanning everything.
+// Changes are only logged while at least one reader exists, and repeated changes to an entity that no reader
+// has seen yet are folded into its pending entry, so the log stays proportional to distinct changed entities.
+public final class ChangeTracker {
+    // Extra bit alongside the per-type bits: the entity was destroyed
+    public static final int DESTROYED = 1 << 31;
+    // A reader this far behind is cut loose and told to rescan instead of holding the log hostage
+    private static final int MAX_LOG_SIZE = 1 << 20;
+    
+    private static final Class<?>[] TYPES = Component.class.getPermittedSubclasses();
+    private static final ClassValue<Integer> TYPE_BITS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            for (int i = 0; i < TYPES.length; i++) {
+                if (TYPES[i] == type) return 1 << i;
+            }
+            throw new IllegalArgumentException("Not a component type: " + type.getName());
+        }
+    };
+    
+    public interface Listener {
+        void onChanged(int entityId, int changedMask);
+    }
+    
+    public final class Reader {
+        private final int mask;
+        private long cursor;
+        private boolean overflowed = false;
+        // Per slot index: poll stamp, id and merged mask, so an entity logged more than once is delivered once
+        private int[] stamps = new int[256];
+        private int[] stampIds = new int[256];
+        private int[] merged = new int[256];
+        private int pollStamp = 0;
+        
+        private Reader(int mask) {
+            this.mask = mask;
+            this.cursor = base + size;
+        }
+        
+        // Delivers each entity that changed in one of this reader's types since the last poll.
+        // Returns false if the reader fell too far behind; the caller must then rescan everything.
+        public boolean poll(Listener listener) {
+            if (overflowed) {
+                overflowed = false;
+                cursor = base + size;
+                return false;
+            }
+            
+            long start = cursor;
+            long end = base + size;
+            if (++pollStamp == 0) {
+                Arrays.fill(stamps, 0);
+                pollStamp = 1;
+            }
+            
+            for (long entry = start; entry < end; entry++) {
+                int offset = (int) (entry - base);
+                int changed = masks[offset] & mask;
+                if (changed == 0) continue;
+                
+                int id = ids[offset];
+                int index = EntityManager.indexOf(id);
+                if (index >= stamps.length) {
+                    int capacity = Math.max(index + 1, stamps.length * 2);
+                    stamps = Arrays.copyOf(stamps, capacity);
+                    stampIds = Arrays.copyOf(stampIds, capacity);
+                    merged = Arrays.copyOf(merged, capacity);
+                }
+                if (stamps[index] == pollStamp && stampIds[index] == id) {
+                    merged[index] |= changed;
+                } else {
+                    stamps[index] = pollStamp;
+                    stampIds[index] = id;
+                    merged[index] = changed;
+                }
+            }
+            
+            // Listeners may change components; those changes land past end and wait for the next poll
+            cursor = end;
+            polling = true;
+            try {
+                for (long entry = start; entry < end; entry++) {
+                    int offset = (int) (entry - base);
+                    int changed = masks[offset] & mask;
+                    if (changed == 0) continue;
+                    
+                    int id = ids[offset];
+                    int index = EntityManager.indexOf(id);
+                    if (stampIds[index] != id) {
+                        // Slot was reused later in this window; fall back to this entry's own mask
+                        listener.onChanged(id, changed);
+                    } else if (stamps[index] == pollStamp) {
+                        stamps[index] = 0;
+                        listener.onChanged(id, merged[index]);
+                    }
+                }
+            } finally {
+                polling = false;
+            }
+            trim();
+            return true;
+        }
+        
+        public void close() {
+            readers.remove(this);
+            trim();
+        }
+    }
+    
+    private final List<Reader> readers = new ArrayList<>();
+    private final long[] typeVersions = new long[TYPES.length];
+    private long version = 0;
+    
+    // Log entries hold an entity id and the union of type bits changed; base is the absolute number of entry 0
+    private int[] ids = new int[256];
+    private int[] masks = new int[256];
+    private int size = 0;
+    private long base = 0;
+    private boolean polling = false;
+    
+    // Per slot index: absolute number of the entity's newest log entry, and the id it was logged for
+    private long[] lastEntry = new long[256];
+    private int[] lastIds = new int[256];
+    
+    public ChangeTracker() {
+        Arrays.fill(lastEntry, -1L);
+    }
+    
+    public static int bitOf(Class<? extends Component> type) {
+        return TYPE_BITS.get(type);
+    }
+    
+    @SafeVarargs
+    public static int maskOf(Class<? extends Component>... types) {
+        int mask = 0;
+        for (Class<? extends Component> type : types) {
+            mask |= bitOf(type);
+        }
+        return mask;
+    }
+    
+    public Reader reader(int mask) {
+        Reader reader = new Reader(mask);
+        readers.add(reader);
+        return reader;
+    }
+    
+    void markChanged(int entityId, Class<? extends Component> type) {
+        int bit = bitOf(type);
+        typeVersions[Integer.numberOfTrailingZeros(bit)] = ++version;
+        log(entityId, bit);
+    }
+    
+    void markDestroyed(int entityId) {
+        version++;
+        log(entityId, DESTROYED);
+    }
+    
+    private void log(int entityId, int bits) {
+        if (readers.isEmpty()) return;
+        
+        int index = EntityManager.indexOf(entityId);
+        if (index >= lastEntry.length) {
+            int capacity = Math.max(index + 1, lastEntry.length * 2);
+            int old = lastEntry.length;
+            lastEntry = Arrays.copyOf(lastEntry, capacity);
+            lastIds = Arrays.copyOf(lastIds, capacity);
+            Arrays.fill(lastEntry, old, capacity, -1L);
+        }
+        
+        // Fold into the entity's pending entry if no reader has consumed it yet
+        long last = lastEntry[index];
+        if (lastIds[index] == entityId && last >= base && last >= furthestCursor()) {
+            masks[(int) (last - base)] |= bits;
+            return;
+        }
+        
+        if (size == ids.length) {
+            trim();
+            if (size == ids.length) {
+                if (size >= MAX_LOG_SIZE && !polling) {
+                    dropSlowestReader();
+                }
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    masks = Arrays.copyOf(masks, size * 2);
+                }
+            }
+        }
+        
+        ids[size] = entityId;
+        masks[size] = bits;
+        lastEntry[index] = base + size;
+        lastIds[index] = entityId;
+        size++;
+    }
+    
+    private long furthestCursor() {
+        long furthest = Long.MIN_VALUE;
+        for (Reader reader : readers) {
+            furthest = Math.max(furthest, reader.cursor);
+        }
+        return furthest;
+    }
+    
+    // Drops the prefix every reader has consumed
+    private void trim() {
+        if (polling) return;
+        
+        long slowest = base + size;
+        for (Reader reader : readers) {
+            if (!reader.overflowed) slowest = Math.min(slowest, reader.cursor);
+        }
+        int consumed = (int) (slowest - base);
+        if (consumed <= 0) return;
+        
+        System.arraycopy(ids, consumed, ids, 0, size - consumed);
+        System.arraycopy(masks, consumed, masks, 0, size - consumed);
+        size -= consumed;
+        base = slowest;
+    }
+    
+    private void dropSlowestReader() {
+        Reader slowest = null;
+        for (Reader reader : readers) {
+            if (!reader.overflowed && (slowest == null || reader.cursor < slowest.cursor)) slowest = reader;
+        }
+        if (slowest != null) {
+            slowest.overflowed = true;
+            trim();
+        }
+    }
+    
+    // Bumped whenever any component of the type changes; cheap "did anything change" test for whole systems
+    public long getVersion(Class<? extends Component> type) {
+        return typeVersions[Integer.numberOfTrailingZeros(bitOf(type))];
+    }
+    
+    public long getVersion() { return version; }
+    public int getPendingCount() { return size; }
+    public int getReaderCount() { return readers.size(); }
+}
@@ -0,0 +1,83 @@
+package engine.ecs;
+
+import java.util.Arrays;
+
+// Structural changes recorded while systems iterate, applied in order at EntityManager.sync()
+public class CommandBuffer {
+    private static final byte CREATE = 0;
+    private static final byte DESTROY = 1;
+    private static final byte ADD = 2;
+    private static final byte REMOVE = 3;
+    
+    private final EntityManager entityManager;
+    
+    private byte[] ops = new byte[64];
+    private Entity[] targets = new Entity[64];
+    private Component[] components = new Component[64];
+    private Class<?>[] types = new Class<?>[64];
+    private int count = 0;
+    
+    CommandBuffer(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+    
+    // The id is reserved immediately, but systems only see the entity after the next sync
+    public Entity create() {
+        Entity entity = entityManager.reserve();
+        record(CREATE, entity, null, null);
+        return entity;
+    }
+    
+    public void destroy(Entity entity) {
+        record(DESTROY, entity, null, null);
+    }
+    
+    public void addComponent(Entity entity, Component component) {
+        record(ADD, entity, component, null);
+    }
+    
+    public void removeComponent(Entity entity, Class<? extends Component> type) {
+        record(REMOVE, entity, null, type);
+    }
+    
+    private void record(byte op, Entity entity, Component component, Class<?> type) {
+        if (count == ops.length) {
+            int capacity = count * 2;
+            ops = Arrays.copyOf(ops, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            components = Arrays.copyOf(components, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        ops[count] = op;
+        targets[count] = entity;
+        components[count] = component;
+        types[count] = type;
+        count++;
+    }
+    
+    @SuppressWarnings("unchecked")
+    void apply() {
+        for (int i = 0; i < count; i++) {
+            Entity entity = targets[i];
+            
+            // Commands against an entity destroyed earlier in the buffer are dropped
+            if (entityManager.isReserved(entity.id())) {
+                switch (ops[i]) {
+                    case CREATE -> entityManager.activate(entity);
+                    case DESTROY -> entityManager.destroy(entity);
+                    case ADD -> entity.addComponent(components[i]);
+                    case REMOVE -> entity.removeComponent((Class<? extends Component>) types[i]);
+                }
+            }
+            
+            targets[i] = null;
+            components[i] = null;
+            types[i] = null;
+        }
+        count = 0;
+    }
+    
+    public int size() {
+        return count;
+    }
+}
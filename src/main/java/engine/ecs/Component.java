@@ -6,4 +6,6 @@ public sealed interface Component permits
     InputComponent,
     AnimationComponent,
     AIComponent,
-    InteractionComponent {}
+    InteractionComponent,
+    VelocityComponent,
+    LightComponent {}
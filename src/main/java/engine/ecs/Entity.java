@@ -1,24 +1,46 @@
 package engine.ecs;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
-public record Entity(int id, Map<Class<? extends Component>, Component> components) {
+// owner is null for entities created outside an EntityManager; those are simply not tracked.
+// The owner recycles component maps along with slots, so every access first checks that this handle's
+// generation still holds the slot: a stale handle sees no components and cannot write to the new owner.
+public record Entity(int id, Map<Class<? extends Component>, Component> components, EntityManager owner) {
     
     public Entity(int id) {
-        this(id, new ConcurrentHashMap<>());
+        this(id, new HashMap<>(), null);
+    }
+    
+    public Entity(int id, Map<Class<? extends Component>, Component> components) {
+        this(id, components, null);
+    }
+    
+    private boolean isCurrent() {
+        return owner == null || owner.isReserved(id);
     }
     
     public <T extends Component> void addComponent(T component) {
-        components.put(component.getClass(), component);
+        if (!isCurrent()) return;
+        Component previous = components.put(component.getClass(), component);
+        // Rewriting an equal value is not a change, so steady-state systems don't flood the tracker
+        if (owner != null && !component.equals(previous)) {
+            owner.changes().markChanged(id, component.getClass());
+        }
     }
     
     @SuppressWarnings("unchecked")
     public <T extends Component> T getComponent(Class<T> type) {
-        return (T) components.get(type);
+        return isCurrent() ? (T) components.get(type) : null;
     }
     
     public boolean hasComponent(Class<? extends Component> type) {
-        return components.containsKey(type);
+        return isCurrent() && components.containsKey(type);
+    }
+    
+    public void removeComponent(Class<? extends Component> type) {
+        if (isCurrent() && components.remove(type) != null && owner != null) {
+            owner.changes().markChanged(id, type);
+        }
     }
 }
@@ -0,0 +1,156 @@
+package engine.ecs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ids pack a slot index (low bits) with a generation (high bits) so stale ids never alias a recycled slot.
+// Ids are opaque: generations from 512 up set the sign bit, so ids may be negative. -1 (GameEvent.NO_ENTITY)
+// can never be issued, because index INDEX_MASK is never allocated.
+public class EntityManager {
+    public static final int INDEX_BITS = 22;
+    public static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    public static final int GENERATION_MASK = (1 << (32 - INDEX_BITS)) - 1;
+    
+    private static final int NOT_LIVE = -1;
+    
+    private int[] generations = new int[256];
+    private int[] denseIndex = new int[256];
+    private Entity[] slots = new Entity[256];
+    private int[] freeIndices = new int[256];
+    private int freeCount = 0;
+    private int nextIndex = 0;
+    
+    private final List<Entity> entities = new ArrayList<>();
+    private final List<Entity> entitiesView = Collections.unmodifiableList(entities);
+    private final ArrayDeque<Map<Class<? extends Component>, Component>> componentPool = new ArrayDeque<>();
+    private final CommandBuffer commands = new CommandBuffer(this);
+    private final ChangeTracker changes = new ChangeTracker();
+    
+    public static int indexOf(int id) {
+        return id & INDEX_MASK;
+    }
+    
+    public static int generationOf(int id) {
+        return (id >>> INDEX_BITS) & GENERATION_MASK;
+    }
+    
+    // Creates a live entity immediately; use commands() instead while systems are iterating
+    public Entity create() {
+        Entity entity = reserve();
+        activate(entity);
+        return entity;
+    }
+    
+    // Destroys immediately; use commands() instead while systems are iterating
+    public void destroy(Entity entity) {
+        destroy(entity.id());
+    }
+    
+    public void destroy(int id) {
+        if (!isReserved(id)) return;
+        
+        int index = indexOf(id);
+        Entity entity = slots[index];
+        
+        int dense = denseIndex[index];
+        if (dense != NOT_LIVE) {
+            // Swap-remove keeps the live list packed
+            Entity last = entities.remove(entities.size() - 1);
+            if (last != entity) {
+                entities.set(dense, last);
+                denseIndex[indexOf(last.id())] = dense;
+            }
+        }
+        
+        slots[index] = null;
+        denseIndex[index] = NOT_LIVE;
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        }
+        freeIndices[freeCount++] = index;
+        
+        changes.markDestroyed(id);
+        // Handles kept elsewhere (camera targets, cached players) still reference this map once it is reused;
+        // Entity checks its generation against the slot before every access, so they can never reach it
+        entity.components().clear();
+        componentPool.push(entity.components());
+    }
+    
+    public boolean isAlive(int id) {
+        return isReserved(id) && denseIndex[indexOf(id)] != NOT_LIVE;
+    }
+    
+    public Entity get(int id) {
+        return isAlive(id) ? slots[indexOf(id)] : null;
+    }
+    
+    public List<Entity> getEntities() {
+        return entitiesView;
+    }
+    
+    public ChangeTracker changes() {
+        return changes;
+    }
+    
+    public CommandBuffer commands() {
+        return commands;
+    }
+    
+    // Sync point: applies everything recorded in the command buffer since the last call
+    public void sync() {
+        commands.apply();
+    }
+    
+    Entity reserve() {
+        int index;
+        if (freeCount > 0) {
+            index = freeIndices[--freeCount];
+        } else {
+            if (nextIndex >= INDEX_MASK) {
+                throw new IllegalStateException("Entity index space exhausted");
+            }
+            index = nextIndex++;
+            if (index == slots.length) {
+                int capacity = slots.length * 2;
+                slots = Arrays.copyOf(slots, capacity);
+                generations = Arrays.copyOf(generations, capacity);
+                denseIndex = Arrays.copyOf(denseIndex, capacity);
+            }
+        }
+        
+        var components = componentPool.poll();
+        if (components == null) {
+            components = new HashMap<>(8);
+        }
+        
+        Entity entity = new Entity((generations[index] << INDEX_BITS) | index, components, this);
+        slots[index] = entity;
+        denseIndex[index] = NOT_LIVE;
+        return entity;
+    }
+    
+    void activate(Entity entity) {
+        int index = indexOf(entity.id());
+        if (!isReserved(entity.id()) || denseIndex[index] != NOT_LIVE) return;
+        
+        denseIndex[index] = entities.size();
+        entities.add(entity);
+    }
+    
+    boolean isReserved(int id) {
+        int index = indexOf(id);
+        return index < nextIndex && slots[index] != null && slots[index].id() == id;
+    }
+    
+    public int getLiveCount() { return entities.size(); }
+    public int getCapacity() { return nextIndex; }
+    public int getFreeSlotCount() { return freeCount; }
+    public int getPooledStorageCount() { return componentPool.size(); }
+}
@@ -0,0 +1,110 @@
+package engine.ecs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Single-threaded ring buffer bus: systems publish during the tick, subscribers drain once per tick in dispatch()
+public class EventBus {
+    
+    public interface Subscriber {
+        void onEvent(GameEvent event);
+    }
+    
+    private static final class Subscription {
+        private final Subscriber subscriber;
+        private final int typeMask;
+        private long cursor;
+        
+        private Subscription(Subscriber subscriber, int typeMask, long cursor) {
+            this.subscriber = subscriber;
+            this.typeMask = typeMask;
+            this.cursor = cursor;
+        }
+    }
+    
+    private final GameEvent[] ring;
+    private final int mask;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    
+    private long published = 0;
+    private long dropped = 0;
+    private int peakDepth = 0;
+    
+    public EventBus() {
+        this(1024);
+    }
+    
+    public EventBus(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event bus capacity must be a power of two: " + capacity);
+        }
+        this.ring = new GameEvent[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new GameEvent();
+        }
+    }
+    
+    public void subscribe(Subscriber subscriber, GameEvent.Type... types) {
+        int typeMask = 0;
+        for (GameEvent.Type type : types) {
+            typeMask |= 1 << type.ordinal();
+        }
+        // New subscribers only see events published from now on
+        subscriptions.add(new Subscription(subscriber, typeMask, published));
+    }
+    
+    public boolean publishInteraction(int sourceId, int targetId, String message) {
+        return publish(GameEvent.Type.INTERACTION_TRIGGERED, sourceId, targetId, 0, 0, message);
+    }
+    
+    public boolean publishTileCrossed(int entityId, int tileX, int tileY) {
+        return publish(GameEvent.Type.TILE_CROSSED, entityId, GameEvent.NO_ENTITY, tileX, tileY, null);
+    }
+    
+    public boolean publishCollision(int entityA, int entityB) {
+        return publish(GameEvent.Type.COLLISION, entityA, entityB, 0, 0, null);
+    }
+    
+    private boolean publish(GameEvent.Type type, int sourceId, int targetId, int tileX, int tileY, String message) {
+        int depth = getQueueDepth();
+        if (depth == ring.length) {
+            // Slowest subscriber still needs the oldest slot, drop rather than overwrite
+            dropped++;
+            return false;
+        }
+        
+        ring[(int) (published & mask)].set(type, sourceId, targetId, tileX, tileY, message);
+        published++;
+        peakDepth = Math.max(peakDepth, depth + 1);
+        return true;
+    }
+    
+    public void dispatch() {
+        long end = published;
+        
+        for (int i = 0; i < subscriptions.size(); i++) {
+            Subscription subscription = subscriptions.get(i);
+            for (long sequence = subscription.cursor; sequence < end; sequence++) {
+                GameEvent event = ring[(int) (sequence & mask)];
+                if ((subscription.typeMask & (1 << event.type().ordinal())) != 0) {
+                    subscription.subscriber.onEvent(event);
+                }
+            }
+            subscription.cursor = end;
+        }
+    }
+    
+    public int getQueueDepth() {
+        long oldest = published;
+        for (int i = 0; i < subscriptions.size(); i++) {
+            oldest = Math.min(oldest, subscriptions.get(i).cursor);
+        }
+        return (int) (published - oldest);
+    }
+    
+    public int getCapacity() { return ring.length; }
+    public int getPeakDepth() { return peakDepth; }
+    public long getPublishedCount() { return published; }
+    public long getDroppedCount() { return dropped; }
+}
@@ -0,0 +1,49 @@
+package engine.ecs;
+
+// Reusable event slot owned by an EventBus ring; never hold on to one after the handler returns
+public final class GameEvent {
+    
+    public enum Type {
+        INTERACTION_TRIGGERED,
+        TILE_CROSSED,
+        COLLISION
+    }
+    
+    public static final int NO_ENTITY = -1;
+    
+    private Type type;
+    private int sourceId;
+    private int targetId;
+    private int tileX;
+    private int tileY;
+    private String message;
+    
+    GameEvent() {
+        reset();
+    }
+    
+    void reset() {
+        type = null;
+        sourceId = NO_ENTITY;
+        targetId = NO_ENTITY;
+        tileX = 0;
+        tileY = 0;
+        message = null;
+    }
+    
+    void set(Type type, int sourceId, int targetId, int tileX, int tileY, String message) {
+        this.type = type;
+        this.sourceId = sourceId;
+        this.targetId = targetId;
+        this.tileX = tileX;
+        this.tileY = tileY;
+        this.message = message;
+    }
+    
+    public Type type() { return type; }
+    public int sourceId() { return sourceId; }
+    public int targetId() { return targetId; }
+    public int tileX() { return tileX; }
+    public int tileY() { return tileY; }
+    public String message() { return message; }
+}
@@ -0,0 +1,11 @@
+package engine.ecs;
+
+// Light emitted from the entity's tile; level falls off by one per tile step, so it reaches level - 1 tiles
+public record LightComponent(int level) implements Component {
+    
+    public LightComponent {
+        if (level < 0) {
+            throw new IllegalArgumentException("Negative light level: " + level);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package engine.ecs;
+
+public record VelocityComponent(float vx, float vy) implements Component {
+    
+    public static final VelocityComponent ZERO = new VelocityComponent(0f, 0f);
+    
+    public boolean isMoving() {
+        return vx != 0f || vy != 0f;
+    }
+}
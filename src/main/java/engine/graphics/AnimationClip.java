@@ -0,0 +1,15 @@
+package engine.graphics;
+
+public record AnimationClip(String name, String[] frames, float frameTime, boolean loop) {
+    
+    public String frameAt(float elapsed) {
+        int frame = (int) (Math.max(0f, elapsed) / frameTime);
+        
+        if (loop) {
+            frame %= frames.length;
+        } else {
+            frame = Math.min(frame, frames.length - 1);
+        }
+        return frames[frame];
+    }
+}
@@ -0,0 +1,41 @@
+package engine.graphics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Clips are defined once and shared; entities only reference them by id
+public class AnimationClips {
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private volatile AnimationClip[] clips = new AnimationClip[0];
+    
+    public synchronized int register(String name, String[] frames, float frameTime, boolean loop) {
+        Integer existing = idsByName.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        
+        int id = clips.length;
+        AnimationClip[] grown = Arrays.copyOf(clips, id + 1);
+        grown[id] = new AnimationClip(name, frames.clone(), frameTime, loop);
+        clips = grown;
+        idsByName.put(name, id);
+        return id;
+    }
+    
+    public AnimationClip get(int id) {
+        return clips[id];
+    }
+    
+    public synchronized int idOf(String name) {
+        return idsByName.getOrDefault(name, -1);
+    }
+    
+    public String frameAt(int id, float elapsed) {
+        return clips[id].frameAt(elapsed);
+    }
+    
+    public int size() {
+        return clips.length;
+    }
+}
@@ -30,6 +30,15 @@ public class Camera {
         }
     }
     
+    // Jump straight to the target instead of easing towards it
+    public void snapToTarget() {
+        if (target != null && target.hasComponent(PositionComponent.class)) {
+            var pos = target.getComponent(PositionComponent.class);
+            x = pos.x() - viewWidth / 2f;
+            y = pos.y() - viewHeight / 2f;
+        }
+    }
+    
     public float getX() { return x; }
     public float getY() { return y; }
     public int getViewWidth() { return viewWidth; }
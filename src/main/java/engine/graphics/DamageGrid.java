@@ -0,0 +1,93 @@
+package engine.graphics;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Screen split into square cells, each holding a hash of the draw commands that overlap it, in order.
+// A cell whose hash differs from last frame's is damaged: something was added, removed, moved or changed there.
+// Damaged cells are merged into row runs and then stacked into rectangles for redraw and presentation.
+final class DamageGrid {
+    private final int width, height, cellSize;
+    private final int cols, rows;
+    private long[] current, previous;
+    private final List<Rectangle> rects = new ArrayList<>();
+    private final List<Rectangle> open = new ArrayList<>();
+    private final List<Rectangle> stillOpen = new ArrayList<>();
+    private int damagedCells = 0;
+    
+    DamageGrid(int width, int height, int cellSize) {
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.cols = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.current = new long[cols * rows];
+        this.previous = new long[cols * rows];
+    }
+    
+    // Hashes this frame into the grid and returns the damaged rectangles in pixels; the list is reused
+    List<Rectangle> diff(DrawList list) {
+        Arrays.fill(current, 1L);
+        for (int i = 0; i < list.size; i++) {
+            if (list.xs[i] + list.widths[i] <= 0 || list.ys[i] + list.heights[i] <= 0) continue;
+            int c0 = Math.max(0, list.xs[i] / cellSize), c1 = Math.min(cols - 1, (list.xs[i] + list.widths[i] - 1) / cellSize);
+            int r0 = Math.max(0, list.ys[i] / cellSize), r1 = Math.min(rows - 1, (list.ys[i] + list.heights[i] - 1) / cellSize);
+            
+            long hash = list.hashes[i];
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    current[r * cols + c] = DrawList.mix(current[r * cols + c], hash);
+                }
+            }
+        }
+        
+        rects.clear();
+        open.clear();
+        damagedCells = 0;
+        for (int r = 0; r < rows; r++) {
+            stillOpen.clear();
+            int c = 0;
+            while (c < cols) {
+                if (current[r * cols + c] == previous[r * cols + c]) {
+                    c++;
+                    continue;
+                }
+                int start = c;
+                while (c < cols && current[r * cols + c] != previous[r * cols + c]) c++;
+                damagedCells += c - start;
+                stillOpen.add(extendOrOpen(start * cellSize, r * cellSize, (c - start) * cellSize));
+            }
+            open.clear();
+            open.addAll(stillOpen);
+        }
+        
+        long[] swap = previous;
+        previous = current;
+        current = swap;
+        
+        // Clip the edge cells to the screen
+        for (Rectangle rect : rects) {
+            rect.width = Math.min(rect.width, width - rect.x);
+            rect.height = Math.min(rect.height, height - rect.y);
+        }
+        return rects;
+    }
+    
+    // Grows the rectangle from the row above when it spans exactly the same columns
+    private Rectangle extendOrOpen(int x, int y, int runWidth) {
+        for (Rectangle rect : open) {
+            if (rect.x == x && rect.width == runWidth && rect.y + rect.height == y) {
+                rect.height += cellSize;
+                return rect;
+            }
+        }
+        Rectangle rect = new Rectangle(x, y, runWidth, cellSize);
+        rects.add(rect);
+        return rect;
+    }
+    
+    int getDamagedCells() { return damagedCells; }
+    int getCellCount() { return cols * rows; }
+}
@@ -0,0 +1,95 @@
+package engine.graphics;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+// One frame's draw calls in screen space, recorded instead of drawn so RenderEngine can diff frames
+// and replay only the commands that overlap damaged regions. Struct-of-arrays, reused across frames.
+final class DrawList {
+    static final int TILE = 0, ENTITY = 1, IMAGE = 2;
+    
+    int size = 0;
+    int[] kinds = new int[256];
+    String[] textures = new String[256];
+    BufferedImage[] images = new BufferedImage[256];
+    // Bounds include the one-pixel outline drawRect adds on the right and bottom
+    int[] xs = new int[256], ys = new int[256], widths = new int[256], heights = new int[256];
+    int[] levels = new int[256], maxLevels = new int[256];
+    long[] hashes = new long[256];
+    
+    void clear() {
+        // Drop image references so replaced text images can be collected
+        Arrays.fill(images, 0, size, null);
+        size = 0;
+    }
+    
+    void addTile(String texture, int x, int y, int tileSize, int level, int maxLevel) {
+        int i = add(TILE, x, y, tileSize + 1, tileSize + 1);
+        textures[i] = texture;
+        levels[i] = level;
+        maxLevels[i] = maxLevel;
+        hashes[i] = mix(mix(mix(hashes[i], texture.hashCode()), level), maxLevel);
+    }
+    
+    void addEntity(String texture, int x, int y, int width, int height) {
+        int i = add(ENTITY, x, y, width + 1, height + 1);
+        textures[i] = texture;
+        hashes[i] = mix(hashes[i], texture.hashCode());
+    }
+    
+    // The version stands in for the pixels, since text images are redrawn in place when the text changes
+    void addImage(BufferedImage image, int version, int x, int y) {
+        int i = add(IMAGE, x, y, image.getWidth(), image.getHeight());
+        images[i] = image;
+        hashes[i] = mix(mix(hashes[i], System.identityHashCode(image)), version);
+    }
+    
+    private int add(int kind, int x, int y, int width, int height) {
+        if (size == kinds.length) {
+            int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            textures = Arrays.copyOf(textures, capacity);
+            images = Arrays.copyOf(images, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            maxLevels = Arrays.copyOf(maxLevels, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        int i = size++;
+        kinds[i] = kind;
+        xs[i] = x;
+        ys[i] = y;
+        widths[i] = width;
+        heights[i] = height;
+        hashes[i] = mix(mix(mix(mix(mix(kind, x), y), width), height), 0);
+        return i;
+    }
+    
+    // Draws, in recorded order, every command overlapping the rectangle
+    void replay(GameWindow window, int x, int y, int width, int height) {
+        for (int i = 0; i < size; i++) {
+            if (xs[i] >= x + width || ys[i] >= y + height || xs[i] + widths[i] <= x || ys[i] + heights[i] <= y) continue;
+            
+            switch (kinds[i]) {
+                case TILE -> {
+                    int tileSize = widths[i] - 1;
+                    if (levels[i] >= maxLevels[i]) {
+                        window.drawTile(textures[i], xs[i], ys[i], tileSize);
+                    } else {
+                        window.drawTile(textures[i], xs[i], ys[i], tileSize, levels[i], maxLevels[i]);
+                    }
+                }
+                case ENTITY -> window.drawEntity(textures[i], xs[i], ys[i], widths[i] - 1, heights[i] - 1);
+                default -> window.drawImage(images[i], xs[i], ys[i]);
+            }
+        }
+    }
+    
+    static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,73 @@
+package engine.graphics;
+
+// Symmetric shadowcasting over the tile map's solidity: if A sees B then B sees A, walls are lit when seen,
+// and there are no blind corners or artifacts along diagonals. Slopes are kept as exact fractions.
+public final class FieldOfView {
+    
+    public interface Visitor {
+        void visible(int x, int y);
+    }
+    
+    private FieldOfView() {}
+    
+    // Reports every tile within radius (Euclidean) visible from the origin tile, including the origin
+    public static void compute(TileMap tileMap, int originX, int originY, int radius, Visitor visitor) {
+        visitor.visible(originX, originY);
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            // Start and end slopes are (num / den); a row's columns run from depth * start to depth * end
+            scan(tileMap, originX, originY, radius, quadrant, 1, -1, 1, 1, 1, visitor);
+        }
+    }
+    
+    private static void scan(TileMap tileMap, int ox, int oy, int radius, int quadrant, int depth,
+                             long startNum, long startDen, long endNum, long endDen, Visitor visitor) {
+        if (depth > radius) return;
+        
+        // Round ties up at the start and down at the end: floor(d * s + 1/2) and ceil(d * e - 1/2)
+        int minCol = (int) Math.floorDiv(2 * depth * startNum + startDen, 2 * startDen);
+        int maxCol = (int) -Math.floorDiv(-(2 * depth * endNum - endDen), 2 * endDen);
+        long radiusSquared = (long) radius * radius;
+        
+        int previous = 0; // 0 = none yet, 1 = wall, 2 = floor
+        for (int col = minCol; col <= maxCol; col++) {
+            int x = tileX(ox, quadrant, depth, col), y = tileY(oy, quadrant, depth, col);
+            boolean wall = tileMap.isSolid(x, y);
+            
+            // Symmetric: floors only count when their centre lies inside the sector; walls are seen whenever touched
+            boolean symmetric = col * startDen >= depth * startNum && col * endDen <= depth * endNum;
+            if ((wall || symmetric) && (long) depth * depth + (long) col * col <= radiusSquared) {
+                visitor.visible(x, y);
+            }
+            
+            if (previous == 1 && !wall) {
+                // Coming out from behind a wall narrows the start to this tile's left edge: (2col - 1) / (2depth)
+                startNum = 2L * col - 1;
+                startDen = 2L * depth;
+            }
+            if (previous == 2 && wall) {
+                scan(tileMap, ox, oy, radius, quadrant, depth + 1, startNum, startDen, 2L * col - 1, 2L * depth, visitor);
+            }
+            previous = wall ? 1 : 2;
+        }
+        if (previous == 2) {
+            scan(tileMap, ox, oy, radius, quadrant, depth + 1, startNum, startDen, endNum, endDen, visitor);
+        }
+    }
+    
+    // Quadrants 0..3 face north, east, south and west; depth runs away from the origin, col across
+    private static int tileX(int ox, int quadrant, int depth, int col) {
+        return switch (quadrant) {
+            case 0, 2 -> ox + col;
+            case 1 -> ox + depth;
+            default -> ox - depth;
+        };
+    }
+    
+    private static int tileY(int oy, int quadrant, int depth, int col) {
+        return switch (quadrant) {
+            case 0 -> oy - depth;
+            case 2 -> oy + depth;
+            default -> oy + col;
+        };
+    }
+}
@@ -13,16 +13,21 @@ import java.util.Map;
 public class GameWindow extends JPanel implements KeyListener {
     private static final int WINDOW_WIDTH = 800;
     private static final int WINDOW_HEIGHT = 600;
+    private static final String GRID_KEY = "#grid";
     
     private JFrame frame;
     private BufferedImage backBuffer;
     private Graphics2D g2d;
     private Map<String, Color> tileColors;
+    private final Map<String, Color[]> shadedColors = new HashMap<>();
     private InputManager inputManager;
     
     public GameWindow(InputManager inputManager) {
         this.inputManager = inputManager;
-        initializeWindow();
+        // Headless runs (benchmarks, CI) still draw into the back buffer, there is just no frame to show it
+        if (!GraphicsEnvironment.isHeadless()) {
+            initializeWindow();
+        }
         initializeTileColors();
         backBuffer = new BufferedImage(WINDOW_WIDTH, WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
         g2d = backBuffer.createGraphics();
@@ -60,6 +65,20 @@ public class GameWindow extends JPanel implements KeyListener {
         g2d.fillRect(0, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
     }
     
+    public void clear(int x, int y, int width, int height) {
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(x, y, width, height);
+    }
+    
+    // Confines drawing to a damaged region until resetClip()
+    public void setClip(int x, int y, int width, int height) {
+        g2d.setClip(x, y, width, height);
+    }
+    
+    public void resetClip() {
+        g2d.setClip(null);
+    }
+    
     public void drawTile(String texture, float x, float y, int size) {
         Color color = tileColors.getOrDefault(texture, Color.MAGENTA);
         g2d.setColor(color);
@@ -69,6 +88,35 @@ public class GameWindow extends JPanel implements KeyListener {
         g2d.drawRect((int)x, (int)y, size, size);
     }
     
+    // Tile modulated by a light level out of maxLevel; shaded colours are cached per texture
+    public void drawTile(String texture, float x, float y, int size, int level, int maxLevel) {
+        if (level >= maxLevel) {
+            drawTile(texture, x, y, size);
+            return;
+        }
+        if (level <= 0) return; // Cleared to black already
+        
+        g2d.setColor(shaded(texture, level, maxLevel));
+        g2d.fillRect((int)x, (int)y, size, size);
+        
+        g2d.setColor(shaded(GRID_KEY, level, maxLevel));
+        g2d.drawRect((int)x, (int)y, size, size);
+    }
+    
+    private Color shaded(String texture, int level, int maxLevel) {
+        Color[] shades = shadedColors.get(texture);
+        if (shades == null || shades.length != maxLevel + 1) {
+            Color base = texture.equals(GRID_KEY) ? Color.DARK_GRAY : tileColors.getOrDefault(texture, Color.MAGENTA);
+            shades = new Color[maxLevel + 1];
+            for (int i = 0; i <= maxLevel; i++) {
+                float f = i / (float) maxLevel;
+                shades[i] = new Color((int) (base.getRed() * f), (int) (base.getGreen() * f), (int) (base.getBlue() * f));
+            }
+            shadedColors.put(texture, shades);
+        }
+        return shades[level];
+    }
+    
     public void drawEntity(String texture, float x, float y, float width, float height) {
         Color color = tileColors.getOrDefault(texture, Color.RED);
         g2d.setColor(color);
@@ -78,10 +126,19 @@ public class GameWindow extends JPanel implements KeyListener {
         g2d.drawRect((int)x, (int)y, (int)width, (int)height);
     }
     
+    public void drawImage(BufferedImage image, int x, int y) {
+        g2d.drawImage(image, x, y, null);
+    }
+    
     public void present() {
         repaint();
     }
     
+    // Repaints one region; Swing unions the regions requested before the next paint and copies only that area
+    public void present(int x, int y, int width, int height) {
+        repaint(x, y, width, height);
+    }
+    
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
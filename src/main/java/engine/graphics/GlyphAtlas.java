@@ -0,0 +1,87 @@
+package engine.graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Printable ASCII rasterized once into a single strip; text is drawn by blitting cells out of it
+public class GlyphAtlas {
+    private static final char FIRST_GLYPH = ' ';
+    private static final char LAST_GLYPH = '~';
+    private static final char FALLBACK_GLYPH = '?';
+    
+    private final BufferedImage atlas;
+    private final int cellWidth;
+    private final int cellHeight;
+    
+    public GlyphAtlas(Font font, Color color) {
+        // Measure with a scratch image so the atlas can be sized exactly
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D measure = scratch.createGraphics();
+        FontMetrics metrics = measure.getFontMetrics(font);
+        this.cellWidth = metrics.charWidth('W');
+        this.cellHeight = metrics.getHeight();
+        int ascent = metrics.getAscent();
+        measure.dispose();
+        
+        int glyphCount = LAST_GLYPH - FIRST_GLYPH + 1;
+        this.atlas = new BufferedImage(glyphCount * cellWidth, cellHeight, BufferedImage.TYPE_INT_ARGB);
+        
+        Graphics2D g = atlas.createGraphics();
+        g.setFont(font);
+        g.setColor(color);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        for (char c = FIRST_GLYPH; c <= LAST_GLYPH; c++) {
+            g.drawString(String.valueOf(c), (c - FIRST_GLYPH) * cellWidth, ascent);
+        }
+        g.dispose();
+    }
+    
+    public static GlyphAtlas monospaced(int size, Color color) {
+        return new GlyphAtlas(new Font(Font.MONOSPACED, Font.PLAIN, size), color);
+    }
+    
+    public void drawString(Graphics2D g, String text, int x, int y) {
+        int penX = x;
+        int penY = y;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                penX = x;
+                penY += cellHeight;
+                continue;
+            }
+            if (c < FIRST_GLYPH || c > LAST_GLYPH) {
+                c = FALLBACK_GLYPH;
+            }
+            
+            int sourceX = (c - FIRST_GLYPH) * cellWidth;
+            g.drawImage(atlas, penX, penY, penX + cellWidth, penY + cellHeight,
+                        sourceX, 0, sourceX + cellWidth, cellHeight, null);
+            penX += cellWidth;
+        }
+    }
+    
+    public int measureWidth(String text) {
+        int longest = 0;
+        int current = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                current = 0;
+            } else {
+                longest = Math.max(longest, ++current);
+            }
+        }
+        return longest * cellWidth;
+    }
+    
+    public int measureHeight(String text) {
+        int lines = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') lines++;
+        }
+        return lines * cellHeight;
+    }
+    
+    public int getCellWidth() { return cellWidth; }
+    public int getCellHeight() { return cellHeight; }
+}
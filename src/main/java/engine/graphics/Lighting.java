@@ -0,0 +1,357 @@
+package engine.graphics;
+
+import engine.ecs.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Tile light levels flood-filled from LightComponent entities, plus the viewer's field of view and the
+// explored (fog of war) memory, all stored per chunk. Moving a light, or a setTile that flips solidity,
+// only marks the chunks that light could reach; update() relights just those chunks and recasts the
+// view only when the viewer changed tile or an occluder inside its radius changed.
+public class Lighting {
+    public static final int MAX_LEVEL = 15;
+    public static final int CHUNK_SIZE = 16;
+    private static final int CHUNK_SHIFT = 4;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // Explored tiles outside the view are drawn at this level, regardless of the light on them now
+    private static final int MEMORY_LEVEL = 3;
+    
+    private static final class Chunk {
+        final byte[] light = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        // One bit per tile, CHUNK_SIZE * CHUNK_SIZE bits
+        final long[] visible = new long[CHUNK_SIZE * CHUNK_SIZE / 64];
+        final long[] explored = new long[CHUNK_SIZE * CHUNK_SIZE / 64];
+        boolean dirty;
+    }
+    
+    private static final class Source {
+        int x, y, level;
+    }
+    
+    private final EntityManager entityManager;
+    private final TileMap tileMap;
+    private final ChangeTracker.Reader reader;
+    private final ChangeTracker.Listener onChanged = this::onChanged;
+    private final int chunksX, chunksY;
+    private final Chunk[] chunks;
+    private final Map<Integer, Source> sources = new HashMap<>();
+    private final int[] dirtyList;
+    private int dirtyCount = 0;
+    
+    // Flood fill scratch: per-tile visit stamps and a queue of packed (tile index, level)
+    private final int[] stamps;
+    private int stamp = 0;
+    private int[] queue = new int[256];
+    
+    private int ambient = MAX_LEVEL;
+    private Entity viewer;
+    private int viewRadius = 0;
+    private int viewX = Integer.MIN_VALUE, viewY = Integer.MIN_VALUE;
+    private boolean viewDirty = false;
+    private final FieldOfView.Visitor reveal = this::reveal;
+    
+    private int lastRelitChunks = 0;
+    private int lastVisibleTiles = 0;
+    
+    public Lighting(EntityManager entityManager, TileMap tileMap) {
+        this.entityManager = entityManager;
+        this.tileMap = tileMap;
+        this.chunksX = (tileMap.getWidth() + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.chunksY = (tileMap.getHeight() + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.chunks = new Chunk[chunksX * chunksY];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk();
+        }
+        this.dirtyList = new int[chunks.length];
+        this.stamps = new int[tileMap.getWidth() * tileMap.getHeight()];
+        this.reader = entityManager.changes().reader(
+            ChangeTracker.maskOf(PositionComponent.class, LightComponent.class, RenderComponent.class) | ChangeTracker.DESTROYED);
+        tileMap.addListener(this::onTileChanged);
+        rebuild();
+    }
+    
+    // Light level every visible tile gets even with no source nearby
+    public void setAmbient(int level) {
+        ambient = Math.max(0, Math.min(MAX_LEVEL, level));
+    }
+    
+    // Without a viewer the whole map counts as visible
+    public void setViewer(Entity viewer, int radius) {
+        this.viewer = viewer;
+        this.viewRadius = radius;
+        viewDirty = true;
+    }
+    
+    public void update() {
+        if (!reader.poll(onChanged)) {
+            rebuild();
+        }
+        
+        lastRelitChunks = dirtyCount;
+        if (dirtyCount > 0) {
+            relight();
+        }
+        
+        if (viewer != null) {
+            var pos = viewer.getComponent(PositionComponent.class);
+            if (pos != null) {
+                int x = tileOf(centerX(viewer, pos)), y = tileOf(centerY(viewer, pos));
+                if (viewDirty || x != viewX || y != viewY) {
+                    recastView(x, y);
+                }
+            }
+        }
+    }
+    
+    private void rebuild() {
+        sources.clear();
+        for (Entity entity : entityManager.getEntities()) {
+            track(entity);
+        }
+        for (int i = 0; i < chunks.length; i++) {
+            markDirty(i);
+        }
+        viewDirty = true;
+    }
+    
+    private void onChanged(int entityId, int changedMask) {
+        Entity entity = (changedMask & ChangeTracker.DESTROYED) != 0 ? null : entityManager.get(entityId);
+        if (entity == null) {
+            Source source = sources.remove(entityId);
+            if (source != null) markReach(source.x, source.y, source.level);
+        } else {
+            track(entity);
+        }
+    }
+    
+    // Adds, moves or drops the entity's light; marks the reach of both the old and the new placement
+    private void track(Entity entity) {
+        var light = entity.getComponent(LightComponent.class);
+        var pos = entity.getComponent(PositionComponent.class);
+        Source source = sources.get(entity.id());
+        if (light == null || pos == null || light.level() == 0) {
+            if (source != null) {
+                sources.remove(entity.id());
+                markReach(source.x, source.y, source.level);
+            }
+            return;
+        }
+        
+        int x = tileOf(centerX(entity, pos)), y = tileOf(centerY(entity, pos));
+        int level = Math.min(MAX_LEVEL, light.level());
+        if (source == null) {
+            source = new Source();
+            sources.put(entity.id(), source);
+        } else if (source.x == x && source.y == y && source.level == level) {
+            return;
+        } else {
+            markReach(source.x, source.y, source.level);
+        }
+        source.x = x;
+        source.y = y;
+        source.level = level;
+        markReach(x, y, level);
+    }
+    
+    private void onTileChanged(int x, int y, Tile previous, Tile tile) {
+        if (previous.solid() == tile.solid()) return;
+        
+        // Only lights that could reach the tile, and only the area they could reach, change
+        for (Source source : sources.values()) {
+            int reach = source.level - 1;
+            if (Math.abs(x - source.x) <= reach && Math.abs(y - source.y) <= reach) {
+                markReach(source.x, source.y, source.level);
+            }
+        }
+        if (viewer != null && Math.abs(x - viewX) <= viewRadius && Math.abs(y - viewY) <= viewRadius) {
+            viewDirty = true;
+        }
+    }
+    
+    private void markReach(int x, int y, int level) {
+        int reach = level - 1;
+        int cx0 = Math.max(0, (x - reach) >> CHUNK_SHIFT), cx1 = Math.min(chunksX - 1, (x + reach) >> CHUNK_SHIFT);
+        int cy0 = Math.max(0, (y - reach) >> CHUNK_SHIFT), cy1 = Math.min(chunksY - 1, (y + reach) >> CHUNK_SHIFT);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                markDirty(cy * chunksX + cx);
+            }
+        }
+    }
+    
+    private void markDirty(int chunk) {
+        if (!chunks[chunk].dirty) {
+            chunks[chunk].dirty = true;
+            dirtyList[dirtyCount++] = chunk;
+        }
+    }
+    
+    // Clears the dirty chunks, then refills them from every light whose reach overlaps one of them
+    private void relight() {
+        int dx0 = Integer.MAX_VALUE, dy0 = Integer.MAX_VALUE, dx1 = Integer.MIN_VALUE, dy1 = Integer.MIN_VALUE;
+        for (int i = 0; i < dirtyCount; i++) {
+            int chunk = dirtyList[i];
+            Arrays.fill(chunks[chunk].light, (byte) 0);
+            int cx = chunk % chunksX, cy = chunk / chunksX;
+            dx0 = Math.min(dx0, cx);
+            dy0 = Math.min(dy0, cy);
+            dx1 = Math.max(dx1, cx);
+            dy1 = Math.max(dy1, cy);
+        }
+        
+        for (Source source : sources.values()) {
+            int reach = source.level - 1;
+            if ((source.x + reach) >> CHUNK_SHIFT < dx0 || (source.x - reach) >> CHUNK_SHIFT > dx1
+                || (source.y + reach) >> CHUNK_SHIFT < dy0 || (source.y - reach) >> CHUNK_SHIFT > dy1) continue;
+            if (touchesDirty(source.x, source.y, reach)) {
+                floodFill(source);
+            }
+        }
+        
+        for (int i = 0; i < dirtyCount; i++) {
+            chunks[dirtyList[i]].dirty = false;
+        }
+        dirtyCount = 0;
+    }
+    
+    private boolean touchesDirty(int x, int y, int reach) {
+        int cx0 = Math.max(0, (x - reach) >> CHUNK_SHIFT), cx1 = Math.min(chunksX - 1, (x + reach) >> CHUNK_SHIFT);
+        int cy0 = Math.max(0, (y - reach) >> CHUNK_SHIFT), cy1 = Math.min(chunksY - 1, (y + reach) >> CHUNK_SHIFT);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                if (chunks[cy * chunksX + cx].dirty) return true;
+            }
+        }
+        return false;
+    }
+    
+    // Breadth-first from the source, one level lost per step; solid tiles take light but don't pass it on.
+    // The fill walks through clean chunks too, since light can leave a dirty chunk and come back, but only writes dirty ones.
+    private void floodFill(Source source) {
+        if (!tileMap.isValidPosition(source.x, source.y)) return;
+        
+        int width = tileMap.getWidth(), height = tileMap.getHeight();
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        
+        int head = 0, tail = 0;
+        int start = source.y * width + source.x;
+        stamps[start] = stamp;
+        queue[tail++] = start << 4 | source.level;
+        while (head < tail) {
+            int packed = queue[head++];
+            int tile = packed >>> 4, level = packed & 0xF;
+            int x = tile % width, y = tile / width;
+            
+            Chunk chunk = chunks[(y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT)];
+            if (chunk.dirty) {
+                int local = (y & CHUNK_MASK) * CHUNK_SIZE + (x & CHUNK_MASK);
+                if (chunk.light[local] < level) chunk.light[local] = (byte) level;
+            }
+            
+            if (level <= 1 || (tile != start && tileMap.isSolid(x, y))) continue;
+            if (tail + 4 > queue.length) {
+                queue = Arrays.copyOf(queue, queue.length * 2);
+            }
+            int next = level - 1;
+            if (x > 0 && stamps[tile - 1] != stamp) { stamps[tile - 1] = stamp; queue[tail++] = (tile - 1) << 4 | next; }
+            if (x < width - 1 && stamps[tile + 1] != stamp) { stamps[tile + 1] = stamp; queue[tail++] = (tile + 1) << 4 | next; }
+            if (y > 0 && stamps[tile - width] != stamp) { stamps[tile - width] = stamp; queue[tail++] = (tile - width) << 4 | next; }
+            if (y < height - 1 && stamps[tile + width] != stamp) { stamps[tile + width] = stamp; queue[tail++] = (tile + width) << 4 | next; }
+        }
+    }
+    
+    // Clears the visible bits around the old view, then casts the new one
+    private void recastView(int x, int y) {
+        if (viewX != Integer.MIN_VALUE) {
+            forChunksAround(viewX, viewY, viewRadius, chunk -> Arrays.fill(chunk.visible, 0L));
+        }
+        viewX = x;
+        viewY = y;
+        viewDirty = false;
+        lastVisibleTiles = 0;
+        FieldOfView.compute(tileMap, x, y, viewRadius, reveal);
+    }
+    
+    private void reveal(int x, int y) {
+        if (!tileMap.isValidPosition(x, y)) return;
+        
+        Chunk chunk = chunkAt(x, y);
+        int bit = (y & CHUNK_MASK) * CHUNK_SIZE + (x & CHUNK_MASK);
+        if ((chunk.visible[bit >> 6] & (1L << bit)) == 0) {
+            chunk.visible[bit >> 6] |= 1L << bit;
+            chunk.explored[bit >> 6] |= 1L << bit;
+            lastVisibleTiles++;
+        }
+    }
+    
+    private interface ChunkAction {
+        void apply(Chunk chunk);
+    }
+    
+    private void forChunksAround(int x, int y, int radius, ChunkAction action) {
+        int cx0 = Math.max(0, (x - radius) >> CHUNK_SHIFT), cx1 = Math.min(chunksX - 1, (x + radius) >> CHUNK_SHIFT);
+        int cy0 = Math.max(0, (y - radius) >> CHUNK_SHIFT), cy1 = Math.min(chunksY - 1, (y + radius) >> CHUNK_SHIFT);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                action.apply(chunks[cy * chunksX + cx]);
+            }
+        }
+    }
+    
+    public int getLight(int x, int y) {
+        return tileMap.isValidPosition(x, y) ? chunkAt(x, y).light[(y & CHUNK_MASK) * CHUNK_SIZE + (x & CHUNK_MASK)] : 0;
+    }
+    
+    public boolean isVisible(int x, int y) {
+        if (viewer == null) return true;
+        if (!tileMap.isValidPosition(x, y)) return false;
+        int bit = (y & CHUNK_MASK) * CHUNK_SIZE + (x & CHUNK_MASK);
+        return (chunkAt(x, y).visible[bit >> 6] & (1L << bit)) != 0;
+    }
+    
+    public boolean isExplored(int x, int y) {
+        if (viewer == null) return true;
+        if (!tileMap.isValidPosition(x, y)) return false;
+        int bit = (y & CHUNK_MASK) * CHUNK_SIZE + (x & CHUNK_MASK);
+        return (chunkAt(x, y).explored[bit >> 6] & (1L << bit)) != 0;
+    }
+    
+    public boolean isVisible(Entity entity) {
+        var pos = entity.getComponent(PositionComponent.class);
+        return pos == null || isVisible(tileOf(centerX(entity, pos)), tileOf(centerY(entity, pos)));
+    }
+    
+    // Level to draw the tile at: lit and in view, dimmed from memory, or 0 for never seen
+    public int shadeAt(int x, int y) {
+        if (isVisible(x, y)) return Math.max(ambient, getLight(x, y));
+        return isExplored(x, y) ? MEMORY_LEVEL : 0;
+    }
+    
+    private Chunk chunkAt(int x, int y) {
+        return chunks[(y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT)];
+    }
+    
+    private int tileOf(float coordinate) {
+        return (int) Math.floor(coordinate / tileMap.getTileSize());
+    }
+    
+    private static float centerX(Entity entity, PositionComponent pos) {
+        var render = entity.getComponent(RenderComponent.class);
+        return render == null ? pos.x() : pos.x() + render.width() / 2f;
+    }
+    
+    private static float centerY(Entity entity, PositionComponent pos) {
+        var render = entity.getComponent(RenderComponent.class);
+        return render == null ? pos.y() : pos.y() + render.height() / 2f;
+    }
+    
+    public int getSourceCount() { return sources.size(); }
+    public int getChunkCount() { return chunks.length; }
+    public int getLastRelitChunks() { return lastRelitChunks; }
+    public int getLastVisibleTiles() { return lastVisibleTiles; }
+}
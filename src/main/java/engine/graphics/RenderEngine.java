@@ -1,20 +1,90 @@
 package engine.graphics;
 
+import engine.core.Logger;
+import engine.core.StartupTimeline;
+import engine.ecs.AnimationComponent;
 import engine.ecs.Entity;
 import engine.ecs.PositionComponent;
 import engine.ecs.RenderComponent;
 import engine.input.InputManager;
 
+import java.awt.Rectangle;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class RenderEngine {
+    private static final int DAMAGE_CELL_SIZE = 32;
+    // Past this share of the screen, or this many separate rectangles, one full redraw is cheaper
+    private static final float FULL_REDRAW_SHARE = 0.6f;
+    private static final int MAX_DAMAGE_RECTS = 48;
+    private static final int STATS_LOG_FRAMES = 600;
+    
+    private final InputManager inputManager;
     private GameWindow window;
+    // Window creation started ahead of first draw by initAsync(); joined by the first frame that needs it
+    private CompletableFuture<GameWindow> pendingWindow;
+    private final AnimationClips animationClips = new AnimationClips();
+    
+    // Draw calls are recorded between clear() and present(), diffed against the last frame, and only
+    // the damaged regions are redrawn into the back buffer and repainted
+    private final DrawList drawList = new DrawList();
+    private DamageGrid damageGrid;
+    private boolean fullRedrawPending = true;
+    private boolean cameraSeen = false;
+    // Screen positions are truncated from (world - camera), so only whole-pixel steps of ceil(camera) move pixels;
+    // the easing camera creeps by fractions of a pixel for many frames after it has visibly stopped
+    private int cameraX, cameraY;
+    private int lastCameraX = Integer.MIN_VALUE, lastCameraY = Integer.MIN_VALUE;
+    
+    private long lastPixelsTouched = 0;
+    private int lastDamageRects = 0;
+    private boolean lastFullRedraw = false;
+    private long frameCount = 0, fullRedrawCount = 0, totalPixelsTouched = 0;
     
     public RenderEngine(InputManager inputManager) {
-        this.window = new GameWindow(inputManager);
+        this.inputManager = inputManager;
+    }
+    
+    // Starts opening the window on a background thread so it overlaps asset loading.
+    // Without this the window is opened on first draw, so simulation-only users (servers) never create one.
+    public void initAsync() {
+        if (window != null || pendingWindow != null) return;
+        
+        long start = System.nanoTime();
+        pendingWindow = CompletableFuture.supplyAsync(() -> {
+            GameWindow created = new GameWindow(inputManager);
+            StartupTimeline.span("window init", start);
+            return created;
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "render-init");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+    
+    private GameWindow window() {
+        if (window == null) {
+            if (pendingWindow != null) {
+                long start = System.nanoTime();
+                window = pendingWindow.join();
+                pendingWindow = null;
+                StartupTimeline.span("wait for window", start);
+            } else {
+                long start = System.nanoTime();
+                window = new GameWindow(inputManager);
+                StartupTimeline.span("window init", start);
+            }
+        }
+        return window;
     }
     
     public void renderTileMap(TileMap tileMap, Camera camera) {
+        renderTileMap(tileMap, camera, null);
+    }
+    
+    // With lighting, each tile is modulated by its light and visibility; unseen tiles are left black
+    public void renderTileMap(TileMap tileMap, Camera camera, Lighting lighting) {
+        noteCamera(camera);
         int startX = Math.max(0, (int) (camera.getX() / tileMap.getTileSize()));
         int startY = Math.max(0, (int) (camera.getY() / tileMap.getTileSize()));
         int endX = Math.min(tileMap.getWidth(), startX + camera.getViewWidth() / tileMap.getTileSize() + 2);
@@ -26,12 +96,22 @@ public class RenderEngine {
                 float screenX = x * tileMap.getTileSize() - camera.getX();
                 float screenY = y * tileMap.getTileSize() - camera.getY();
                 
-                window.drawTile(tile.texturePath(), screenX, screenY, tileMap.getTileSize());
+                if (lighting == null) {
+                    drawList.addTile(tile.texturePath(), (int) screenX, (int) screenY, tileMap.getTileSize(), 1, 1);
+                } else {
+                    drawList.addTile(tile.texturePath(), (int) screenX, (int) screenY, tileMap.getTileSize(),
+                                     lighting.shadeAt(x, y), Lighting.MAX_LEVEL);
+                }
             }
         }
     }
     
     public void render(List<Entity> entities, Camera camera) {
+        render(entities, camera, 0f);
+    }
+    
+    public void render(List<Entity> entities, Camera camera, float animationTime) {
+        noteCamera(camera);
         for (Entity entity : entities) {
             if (entity.hasComponent(PositionComponent.class) && 
                 entity.hasComponent(RenderComponent.class)) {
@@ -46,22 +126,116 @@ public class RenderEngine {
                 if (screenX > -render.width() && screenX < camera.getViewWidth() &&
                     screenY > -render.height() && screenY < camera.getViewHeight()) {
                     
-                    window.drawEntity(render.texturePath(), screenX, screenY, render.width(), render.height());
+                    drawList.addEntity(textureOf(entity, animationTime), (int) screenX, (int) screenY, render.width(), render.height());
                 }
             }
         }
     }
     
+    public String textureOf(Entity entity, float animationTime) {
+        var animation = entity.getComponent(AnimationComponent.class);
+        if (animation != null) {
+            return animationClips.frameAt(animation.clipId(), animation.elapsed(animationTime));
+        }
+        return entity.getComponent(RenderComponent.class).texturePath();
+    }
+    
+    public void renderOverlay(UIOverlay overlay) {
+        for (TextElement element : overlay.getElements()) {
+            if (element.isVisible()) {
+                drawList.addImage(element.getImage(), element.getVersion(), element.getX(), element.getY());
+            }
+        }
+    }
+    
+    public AnimationClips getAnimationClips() {
+        return animationClips;
+    }
+    
+    private void noteCamera(Camera camera) {
+        cameraSeen = true;
+        cameraX = (int) Math.ceil(camera.getX());
+        cameraY = (int) Math.ceil(camera.getY());
+    }
+    
+    // Starts a new frame; nothing is drawn until present()
     public void clear() {
-        window.clear();
+        drawList.clear();
+        cameraSeen = false;
     }
     
+    // Redraws only what changed since the last frame, or everything when the camera scrolled
     public void present() {
-        window.present();
+        GameWindow window = window();
+        int width = window.getWidth(), height = window.getHeight();
+        if (damageGrid == null) {
+            damageGrid = new DamageGrid(width, height, DAMAGE_CELL_SIZE);
+        }
+        
+        // Diff every frame, even full redraws, so the next frame compares against what is on screen
+        List<Rectangle> damage = damageGrid.diff(drawList);
+        long damagedPixels = 0;
+        for (Rectangle rect : damage) {
+            damagedPixels += (long) rect.width * rect.height;
+        }
+        
+        boolean scrolled = cameraSeen && (cameraX != lastCameraX || cameraY != lastCameraY);
+        if (cameraSeen) {
+            lastCameraX = cameraX;
+            lastCameraY = cameraY;
+        }
+        
+        lastFullRedraw = fullRedrawPending || scrolled || damage.size() > MAX_DAMAGE_RECTS
+                         || damagedPixels > width * height * FULL_REDRAW_SHARE;
+        if (lastFullRedraw) {
+            window.clear();
+            drawList.replay(window, 0, 0, width, height);
+            window.present();
+            fullRedrawPending = false;
+            fullRedrawCount++;
+            lastPixelsTouched = (long) width * height;
+            lastDamageRects = 1;
+        } else {
+            for (Rectangle rect : damage) {
+                window.setClip(rect.x, rect.y, rect.width, rect.height);
+                window.clear(rect.x, rect.y, rect.width, rect.height);
+                drawList.replay(window, rect.x, rect.y, rect.width, rect.height);
+                window.present(rect.x, rect.y, rect.width, rect.height);
+            }
+            window.resetClip();
+            lastPixelsTouched = damagedPixels;
+            lastDamageRects = damage.size();
+        }
+        
+        // States that render without calling clear() still start each frame empty
+        drawList.clear();
+        cameraSeen = false;
+        
+        frameCount++;
+        totalPixelsTouched += lastPixelsTouched;
+        if (frameCount % STATS_LOG_FRAMES == 0) {
+            Logger.debug("Rendered {} frames: {} px/frame on average, {} full redraws",
+                         frameCount, totalPixelsTouched / frameCount, fullRedrawCount);
+        }
+    }
+    
+    // Forces the next present() to redraw the whole screen
+    public void invalidate() {
+        fullRedrawPending = true;
+    }
+    
+    public long getLastPixelsTouched() { return lastPixelsTouched; }
+    public int getLastDamageRects() { return lastDamageRects; }
+    public boolean wasLastFrameFull() { return lastFullRedraw; }
+    public long getFrameCount() { return frameCount; }
+    public long getFullRedrawCount() { return fullRedrawCount; }
+    
+    public double getAveragePixelsTouched() {
+        return frameCount == 0 ? 0 : totalPixelsTouched / (double) frameCount;
     }
     
     public void setProjection(int width, int height) {
         // Window size is fixed, but we can log this
-        System.out.printf("Setting projection to %dx%d%n", width, height);
+        Logger.debug("Setting projection to {}x{}", width, height);
     }
 }
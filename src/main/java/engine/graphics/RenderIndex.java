@@ -0,0 +1,188 @@
+package engine.graphics;
+
+import engine.ecs.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Uniform grid of renderable entities, kept current from the change tracker so only entities whose
+// position or sprite changed are re-bucketed. Camera culling then touches the cells under the view, not every entity.
+public class RenderIndex {
+    private static final int DEFAULT_CELL_SIZE = 128;
+    private static final int UNINDEXED = -1;
+    
+    private static final class Cell {
+        Entity[] items = new Entity[8];
+        int size;
+    }
+    
+    private final EntityManager entityManager;
+    private final ChangeTracker.Reader reader;
+    private final int cellSize;
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final ChangeTracker.Listener onChanged = this::onChanged;
+    
+    // Per slot index: the id indexed there, its cell key and its position inside the cell
+    private int[] indexedIds = new int[256];
+    private long[] cellKeys = new long[256];
+    private int[] cellSlots = new int[256];
+    private int indexedCount = 0;
+    // Entities are bucketed by their top-left corner, so queries widen by the largest sprite seen
+    private float maxWidth = 0f, maxHeight = 0f;
+    private int lastUpdateCount = 0;
+    
+    public RenderIndex(EntityManager entityManager) {
+        this(entityManager, DEFAULT_CELL_SIZE);
+    }
+    
+    public RenderIndex(EntityManager entityManager, int cellSize) {
+        this.entityManager = entityManager;
+        this.cellSize = cellSize;
+        this.reader = entityManager.changes().reader(
+            ChangeTracker.maskOf(PositionComponent.class, RenderComponent.class) | ChangeTracker.DESTROYED);
+        Arrays.fill(cellSlots, UNINDEXED);
+        rebuild();
+    }
+    
+    // Applies changes since the last call; O(changed entities)
+    public void update() {
+        lastUpdateCount = 0;
+        if (!reader.poll(onChanged)) {
+            rebuild();
+        }
+    }
+    
+    private void onChanged(int entityId, int changedMask) {
+        lastUpdateCount++;
+        Entity entity = (changedMask & ChangeTracker.DESTROYED) != 0 ? null : entityManager.get(entityId);
+        if (entity == null) {
+            remove(entityId);
+        } else {
+            place(entity);
+        }
+    }
+    
+    private void rebuild() {
+        cells.clear();
+        Arrays.fill(cellSlots, UNINDEXED);
+        indexedCount = 0;
+        for (Entity entity : entityManager.getEntities()) {
+            place(entity);
+        }
+        lastUpdateCount = indexedCount;
+    }
+    
+    private void place(Entity entity) {
+        var pos = entity.getComponent(PositionComponent.class);
+        var render = entity.getComponent(RenderComponent.class);
+        if (pos == null || render == null) {
+            remove(entity.id());
+            return;
+        }
+        
+        maxWidth = Math.max(maxWidth, render.width());
+        maxHeight = Math.max(maxHeight, render.height());
+        
+        int index = EntityManager.indexOf(entity.id());
+        ensureCapacity(index);
+        long key = key(cellOf(pos.x()), cellOf(pos.y()));
+        if (cellSlots[index] != UNINDEXED) {
+            if (indexedIds[index] == entity.id() && cellKeys[index] == key) {
+                // Same cell; just refresh the reference in case the slot was recycled
+                cells.get(key).items[cellSlots[index]] = entity;
+                return;
+            }
+            removeAt(index);
+        }
+        
+        Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+        if (cell.size == cell.items.length) {
+            cell.items = Arrays.copyOf(cell.items, cell.size * 2);
+        }
+        cell.items[cell.size] = entity;
+        indexedIds[index] = entity.id();
+        cellKeys[index] = key;
+        cellSlots[index] = cell.size++;
+        indexedCount++;
+    }
+    
+    private void remove(int entityId) {
+        int index = EntityManager.indexOf(entityId);
+        if (index < cellSlots.length && cellSlots[index] != UNINDEXED && indexedIds[index] == entityId) {
+            removeAt(index);
+        }
+    }
+    
+    private void removeAt(int index) {
+        Cell cell = cells.get(cellKeys[index]);
+        int slot = cellSlots[index];
+        Entity last = cell.items[--cell.size];
+        cell.items[slot] = last;
+        cell.items[cell.size] = null;
+        cellSlots[EntityManager.indexOf(last.id())] = slot;
+        cellSlots[index] = UNINDEXED;
+        indexedCount--;
+        if (cell.size == 0) {
+            cells.remove(cellKeys[index]);
+        }
+    }
+    
+    private void ensureCapacity(int index) {
+        if (index < cellSlots.length) return;
+        int old = cellSlots.length;
+        int capacity = Math.max(index + 1, old * 2);
+        indexedIds = Arrays.copyOf(indexedIds, capacity);
+        cellKeys = Arrays.copyOf(cellKeys, capacity);
+        cellSlots = Arrays.copyOf(cellSlots, capacity);
+        Arrays.fill(cellSlots, old, capacity, UNINDEXED);
+    }
+    
+    // Candidates whose bounds may overlap the rectangle, ordered by slot index so draw order stays stable
+    public void query(float minX, float minY, float maxX, float maxY, List<Entity> out) {
+        out.clear();
+        int startX = cellOf(minX - maxWidth), endX = cellOf(maxX);
+        int startY = cellOf(minY - maxHeight), endY = cellOf(maxY);
+        
+        // A huge rectangle over a sparse grid is cheaper to answer by walking the occupied cells
+        if ((long) (endX - startX + 1) * (endY - startY + 1) > cells.size()) {
+            for (var entry : cells.entrySet()) {
+                int cx = (int) (entry.getKey() >> 32), cy = (int) (long) entry.getKey();
+                if (cx >= startX && cx <= endX && cy >= startY && cy <= endY) {
+                    addAll(entry.getValue(), out);
+                }
+            }
+        } else {
+            for (int cy = startY; cy <= endY; cy++) {
+                for (int cx = startX; cx <= endX; cx++) {
+                    Cell cell = cells.get(key(cx, cy));
+                    if (cell != null) addAll(cell, out);
+                }
+            }
+        }
+        out.sort((a, b) -> Integer.compare(EntityManager.indexOf(a.id()), EntityManager.indexOf(b.id())));
+    }
+    
+    public void query(Camera camera, List<Entity> out) {
+        query(camera.getX(), camera.getY(), camera.getX() + camera.getViewWidth(), camera.getY() + camera.getViewHeight(), out);
+    }
+    
+    private static void addAll(Cell cell, List<Entity> out) {
+        for (int i = 0; i < cell.size; i++) {
+            out.add(cell.items[i]);
+        }
+    }
+    
+    private int cellOf(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+    
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+    
+    public int getIndexedCount() { return indexedCount; }
+    public int getCellCount() { return cells.size(); }
+    public int getLastUpdateCount() { return lastUpdateCount; }
+}
@@ -0,0 +1,82 @@
+package engine.graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+// Screen-space text whose laid-out image is rebuilt only when the text actually changes
+public class TextElement {
+    private static final int PADDING = 6;
+    
+    private final GlyphAtlas atlas;
+    private final Color background;
+    private int x, y;
+    private String text;
+    private boolean visible = true;
+    private BufferedImage cached;
+    private boolean dirty = true;
+    private int version = 0;
+    
+    public TextElement(GlyphAtlas atlas, Color background, int x, int y, String text) {
+        this.atlas = atlas;
+        this.background = background;
+        this.x = x;
+        this.y = y;
+        this.text = text;
+    }
+    
+    public void setText(String text) {
+        if (!Objects.equals(this.text, text)) {
+            this.text = text;
+            dirty = true;
+            version++;
+        }
+    }
+    
+    public void setVisible(boolean visible) {
+        if (this.visible != visible) {
+            this.visible = visible;
+            version++;
+        }
+    }
+    
+    public void setPosition(int x, int y) {
+        if (this.x != x || this.y != y) {
+            this.x = x;
+            this.y = y;
+            version++;
+        }
+    }
+    
+    BufferedImage getImage() {
+        if (dirty) {
+            layout();
+            dirty = false;
+        }
+        return cached;
+    }
+    
+    private void layout() {
+        String content = text == null ? "" : text;
+        int width = atlas.measureWidth(content) + PADDING * 2;
+        int height = atlas.measureHeight(content) + PADDING * 2;
+        
+        if (cached == null || cached.getWidth() != width || cached.getHeight() != height) {
+            cached = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        
+        Graphics2D g = cached.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setColor(background);
+        g.fillRect(0, 0, width, height);
+        g.setComposite(AlphaComposite.SrcOver);
+        atlas.drawString(g, content, PADDING, PADDING);
+        g.dispose();
+    }
+    
+    public boolean isVisible() { return visible && text != null && !text.isEmpty(); }
+    public String getText() { return text; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getVersion() { return version; }
+}
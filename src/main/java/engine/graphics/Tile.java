@@ -6,4 +6,10 @@ public record Tile(int id, boolean solid, String texturePath) {
     public static final Tile STONE = new Tile(1, true, "stone.png");
     public static final Tile WATER = new Tile(2, true, "water.png");
     public static final Tile TREE = new Tile(3, true, "tree.png");
+    
+    private static final Tile[] BY_ID = {GRASS, STONE, WATER, TREE};
+    
+    public static Tile byId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : STONE;
+    }
 }
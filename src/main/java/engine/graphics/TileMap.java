@@ -1,15 +1,33 @@
 package engine.graphics;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TileMap {
+    // Returned by the find queries when nothing solid lies in range
+    public static final int NONE = Integer.MIN_VALUE;
+    // Returned by raycast when the segment reaches its end unobstructed
+    public static final float NO_HIT = -1f;
+    
     private final int width, height;
     private final int tileSize;
     private final Tile[][] tiles;
+    // One bit per tile, row-major, each row padded to whole words; kept in step with tiles by setTile
+    private final long[] solid;
+    private final int wordsPerRow;
+    private final List<TileListener> listeners = new ArrayList<>();
+    
+    public interface TileListener {
+        void onTileChanged(int x, int y, Tile previous, Tile tile);
+    }
     
     public TileMap(int width, int height, int tileSize) {
         this.width = width;
         this.height = height;
         this.tileSize = tileSize;
         this.tiles = new Tile[height][width];
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.solid = new long[wordsPerRow * height];
         
         // Initialize with grass
         for (int y = 0; y < height; y++) {
@@ -21,10 +39,31 @@ public class TileMap {
     
     public void setTile(int x, int y, Tile tile) {
         if (isValidPosition(x, y)) {
+            Tile previous = tiles[y][x];
             tiles[y][x] = tile;
+            int word = y * wordsPerRow + (x >>> 6);
+            if (tile.solid()) {
+                solid[word] |= 1L << x;
+            } else {
+                solid[word] &= ~(1L << x);
+            }
+            if (previous != tile) {
+                for (TileListener listener : listeners) {
+                    listener.onTileChanged(x, y, previous, tile);
+                }
+            }
         }
     }
     
+    // Listeners run synchronously inside setTile, on whichever thread edits the map
+    public void addListener(TileListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(TileListener listener) {
+        listeners.remove(listener);
+    }
+    
     public Tile getTile(int x, int y) {
         return isValidPosition(x, y) ? tiles[y][x] : Tile.STONE;
     }
@@ -33,8 +72,138 @@ public class TileMap {
         return x >= 0 && x < width && y >= 0 && y < height;
     }
     
+    // Everything outside the map counts as solid, matching getTile's STONE border
     public boolean isSolid(int x, int y) {
-        return getTile(x, y).solid();
+        if (!isValidPosition(x, y)) return true;
+        return (solid[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+    
+    // Inclusive tile rectangle
+    public boolean anySolidInRect(int x0, int y0, int x1, int y1) {
+        if (x0 > x1 || y0 > y1) return false;
+        if (x0 < 0 || y0 < 0 || x1 >= width || y1 >= height) return true;
+        
+        for (int y = y0; y <= y1; y++) {
+            if (anySolidInRow(y, x0, x1)) return true;
+        }
+        return false;
+    }
+    
+    // Inclusive tile rectangle; tiles outside the map are counted as solid
+    public int countSolid(int x0, int y0, int x1, int y1) {
+        if (x0 > x1 || y0 > y1) return 0;
+        
+        int cx0 = Math.max(0, x0), cy0 = Math.max(0, y0);
+        int cx1 = Math.min(width - 1, x1), cy1 = Math.min(height - 1, y1);
+        long area = (long) (x1 - x0 + 1) * (y1 - y0 + 1);
+        if (cx0 > cx1 || cy0 > cy1) return (int) area;
+        
+        long inside = (long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1);
+        int count = (int) (area - inside);
+        int firstWord = cx0 >>> 6, lastWord = cx1 >>> 6;
+        for (int y = cy0; y <= cy1; y++) {
+            int row = y * wordsPerRow;
+            for (int w = firstWord; w <= lastWord; w++) {
+                count += Long.bitCount(solid[row + w] & spanMask(w, cx0, cx1));
+            }
+        }
+        return count;
+    }
+    
+    // First column, walking from 'from' towards 'to' (either direction), with a solid tile in any of the rows
+    public int findSolidColumn(int from, int to, int rowStart, int rowEnd) {
+        if (rowStart < 0 || rowEnd >= height) return from;
+        int step = from <= to ? 1 : -1;
+        if (step > 0 ? from < 0 : from >= width) return from;
+        
+        int lo = Math.max(0, Math.min(from, to)), hi = Math.min(width - 1, Math.max(from, to));
+        if (lo <= hi) {
+            int firstWord = (step > 0 ? from : hi) >>> 6, lastWord = (step > 0 ? hi : lo) >>> 6;
+            for (int w = firstWord; step > 0 ? w <= lastWord : w >= lastWord; w += step) {
+                // Fold the rows together so one word answers "any solid in this column range"
+                long bits = 0;
+                for (int y = rowStart; y <= rowEnd; y++) {
+                    bits |= solid[y * wordsPerRow + w];
+                }
+                bits &= spanMask(w, lo, hi);
+                if (bits != 0) {
+                    return step > 0 ? (w << 6) + Long.numberOfTrailingZeros(bits)
+                                    : (w << 6) + 63 - Long.numberOfLeadingZeros(bits);
+                }
+            }
+        }
+        
+        // Ran off the map edge, which is solid
+        if (step > 0 && to >= width) return Math.max(from, width);
+        if (step < 0 && to < 0) return Math.min(from, -1);
+        return NONE;
+    }
+    
+    // First row, walking from 'from' towards 'to' (either direction), with a solid tile in the column span
+    public int findSolidRow(int from, int to, int colStart, int colEnd) {
+        if (colStart < 0 || colEnd >= width) return from;
+        int step = from <= to ? 1 : -1;
+        for (int y = from; step > 0 ? y <= to : y >= to; y += step) {
+            if (y < 0 || y >= height || anySolidInRow(y, colStart, colEnd)) return y;
+        }
+        return NONE;
+    }
+    
+    // Fraction of the segment (pixel coordinates) at which it enters the first solid tile, or NO_HIT.
+    // Grid DDA: visits exactly the tiles the segment passes through, one bit test each.
+    public float raycast(float fromX, float fromY, float toX, float toY) {
+        int x = (int) Math.floor(fromX / tileSize);
+        int y = (int) Math.floor(fromY / tileSize);
+        if (isSolid(x, y)) return 0f;
+        
+        float dx = toX - fromX, dy = toY - fromY;
+        int endX = (int) Math.floor(toX / tileSize);
+        int endY = (int) Math.floor(toY / tileSize);
+        int stepX = dx > 0 ? 1 : -1, stepY = dy > 0 ? 1 : -1;
+        
+        // t at which the ray crosses the next vertical / horizontal grid line, and t per whole tile
+        float deltaX = dx == 0 ? Float.POSITIVE_INFINITY : Math.abs(tileSize / dx);
+        float deltaY = dy == 0 ? Float.POSITIVE_INFINITY : Math.abs(tileSize / dy);
+        float nextX = dx == 0 ? Float.POSITIVE_INFINITY : ((stepX > 0 ? x + 1 : x) * tileSize - fromX) / dx;
+        float nextY = dy == 0 ? Float.POSITIVE_INFINITY : ((stepY > 0 ? y + 1 : y) * tileSize - fromY) / dy;
+        
+        int steps = Math.abs(endX - x) + Math.abs(endY - y);
+        for (int i = 0; i < steps; i++) {
+            float t;
+            if (nextX < nextY) {
+                t = nextX;
+                x += stepX;
+                nextX += deltaX;
+            } else {
+                t = nextY;
+                y += stepY;
+                nextY += deltaY;
+            }
+            if (t > 1f) break;
+            if (isSolid(x, y)) return t;
+        }
+        return NO_HIT;
+    }
+    
+    public boolean hasLineOfSight(float fromX, float fromY, float toX, float toY) {
+        return raycast(fromX, fromY, toX, toY) == NO_HIT;
+    }
+    
+    private boolean anySolidInRow(int y, int x0, int x1) {
+        int row = y * wordsPerRow;
+        for (int w = x0 >>> 6; w <= x1 >>> 6; w++) {
+            if ((solid[row + w] & spanMask(w, x0, x1)) != 0) return true;
+        }
+        return false;
+    }
+    
+    // Bits of word w that fall inside columns [x0, x1]
+    private static long spanMask(int w, int x0, int x1) {
+        int base = w << 6;
+        long mask = -1L;
+        if (x0 > base) mask &= -1L << (x0 - base);
+        if (x1 < base + 63) mask &= -1L >>> (63 - (x1 - base));
+        return mask;
     }
     
     public int getWidth() { return width; }
@@ -0,0 +1,23 @@
+package engine.graphics;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+public class UIOverlay {
+    private final List<TextElement> elements = new ArrayList<>();
+    
+    public TextElement addText(GlyphAtlas atlas, Color background, int x, int y, String text) {
+        TextElement element = new TextElement(atlas, background, x, y, text);
+        elements.add(element);
+        return element;
+    }
+    
+    public void remove(TextElement element) {
+        elements.remove(element);
+    }
+    
+    public List<TextElement> getElements() {
+        return elements;
+    }
+}
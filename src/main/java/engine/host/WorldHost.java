@@ -0,0 +1,143 @@
+package engine.host;
+
+import engine.core.GameState;
+import engine.core.Logger;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Hosts many independent worlds in one JVM. A single scheduler thread releases each instance when its
+// tick is due and hands it to a work-stealing pool, so idle or hibernating worlds cost no threads.
+public final class WorldHost implements Closeable {
+    // Not virtual threads: ticks are short CPU-bound bursts that never block, so they gain nothing from
+    // unmounting, and a fixed parallelism caps how many cores the hosted worlds can take. FIFO (async) mode
+    // keeps due ticks in release order.
+    private final ForkJoinPool pool;
+    private final DelayQueue<WorldInstance> schedule = new DelayQueue<>();
+    private final List<WorldInstance> instances = new CopyOnWriteArrayList<>();
+    private final Thread scheduler;
+    private volatile boolean running = true;
+    
+    public WorldHost() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    public WorldHost(int parallelism) {
+        pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        scheduler = new Thread(this::scheduleLoop, "world-scheduler");
+        scheduler.setDaemon(true);
+        scheduler.start();
+    }
+    
+    // Default budget is half the tick interval
+    public WorldInstance host(String name, GameState state, int tickRate) {
+        return host(name, state, tickRate, 500_000L / tickRate);
+    }
+    
+    public WorldInstance host(String name, GameState state, int tickRate, long budgetMicros) {
+        if (!running) {
+            throw new IllegalStateException("World host is closed");
+        }
+        
+        WorldInstance instance = new WorldInstance(name, state, tickRate, budgetMicros);
+        state.preload();
+        state.enter();
+        
+        instance.attach(this, System.nanoTime());
+        instance.scheduled.set(true);
+        instances.add(instance);
+        schedule.add(instance);
+        Logger.debug("Hosting world {} at {} Hz", name, tickRate);
+        return instance;
+    }
+    
+    // The instance exits on its own tick thread, or right away if it is hibernating
+    public void remove(WorldInstance instance) {
+        if (instances.remove(instance)) {
+            instance.requestStop();
+            instance.wake();
+        }
+    }
+    
+    void wake(WorldInstance instance) {
+        if (!running || !instance.scheduled.compareAndSet(false, true)) return;
+        
+        if (instance.resume(System.nanoTime())) {
+            schedule.add(instance);
+        } else {
+            instance.scheduled.set(false);
+        }
+    }
+    
+    private void scheduleLoop() {
+        while (running) {
+            try {
+                WorldInstance instance = schedule.poll(100, TimeUnit.MILLISECONDS);
+                if (instance != null) {
+                    pool.execute(() -> runTick(instance));
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+    
+    private void runTick(WorldInstance instance) {
+        if (instance.tick() && running) {
+            schedule.add(instance);
+            return;
+        }
+        
+        instance.scheduled.set(false);
+        // A message may have been posted while the tick was deciding to hibernate
+        if (instance.hasMail()) {
+            wake(instance);
+        }
+    }
+    
+    public List<WorldInstance> getInstances() {
+        return instances;
+    }
+    
+    public int countInStatus(WorldInstance.Status status) {
+        int count = 0;
+        for (WorldInstance instance : instances) {
+            if (instance.getStatus() == status) count++;
+        }
+        return count;
+    }
+    
+    // Instances sorted by worst observed lag, for spotting the worlds that cannot keep their rate
+    public List<WorldInstance> getMostLagging(int limit) {
+        List<WorldInstance> sorted = new ArrayList<>(instances);
+        sorted.sort((a, b) -> Long.compare(b.getMaxLagMicros(), a.getMaxLagMicros()));
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+    
+    public int getParallelism() { return pool.getParallelism(); }
+    public long getStealCount() { return pool.getStealCount(); }
+    
+    @Override
+    public void close() {
+        running = false;
+        scheduler.interrupt();
+        try {
+            scheduler.join(1000);
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        schedule.clear();
+        for (WorldInstance instance : instances) {
+            instance.stop();
+        }
+        instances.clear();
+    }
+}
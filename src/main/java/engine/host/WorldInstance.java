@@ -0,0 +1,232 @@
+package engine.host;
+
+import engine.core.GameState;
+import engine.core.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+// One independently ticked world. The host guarantees at most one tick in flight per instance,
+// so the state itself needs no locking; other threads talk to it through post().
+public final class WorldInstance implements Delayed {
+    public enum Status {
+        RUNNING,
+        HIBERNATING,
+        FAULTED,
+        STOPPED
+    }
+    
+    // Consecutive over-budget ticks before the instance is throttled to half rate
+    private static final int THROTTLE_AFTER_OVERRUNS = 5;
+    private static final int MAX_THROTTLE_SHIFT = 3;
+    // Falling further behind than this skips ticks instead of bursting to catch up
+    private static final int MAX_CATCH_UP_TICKS = 3;
+    
+    private final String name;
+    private final GameState state;
+    private final long tickNanos;
+    private final long budgetNanos;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    // Set while the instance is queued or ticking; whoever flips it on owns rescheduling
+    final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile WorldHost host;
+    private volatile boolean stopRequested = false;
+    
+    private BooleanSupplier idleCheck = () -> false;
+    private int hibernateAfterTicks = Integer.MAX_VALUE;
+    private int idleTicks = 0;
+    
+    private volatile Status status = Status.RUNNING;
+    private long deadline;
+    private int throttleShift = 0;
+    private int consecutiveOverruns = 0;
+    
+    // Written only by the ticking thread, read by anyone for reporting
+    private volatile long ticks = 0;
+    private volatile long overruns = 0;
+    private volatile long skippedTicks = 0;
+    private volatile long lastLagNanos = 0;
+    private volatile long maxLagNanos = 0;
+    private volatile long totalLagNanos = 0;
+    private volatile long lastTickNanos = 0;
+    private volatile long maxTickNanos = 0;
+    private volatile long totalTickNanos = 0;
+    
+    WorldInstance(String name, GameState state, int tickRate, long budgetMicros) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive: " + tickRate);
+        }
+        this.name = name;
+        this.state = state;
+        this.tickNanos = 1_000_000_000L / tickRate;
+        this.budgetNanos = budgetMicros * 1000L;
+    }
+    
+    // Hibernates after the check has held for the given number of consecutive ticks
+    public void setIdleCheck(BooleanSupplier idleCheck, int hibernateAfterTicks) {
+        this.idleCheck = idleCheck;
+        this.hibernateAfterTicks = hibernateAfterTicks;
+    }
+    
+    // Runs on the instance's tick thread before its next update; wakes a hibernating instance
+    public void post(Runnable message) {
+        mailbox.add(message);
+        wake();
+    }
+    
+    public void wake() {
+        WorldHost owner = host;
+        if (owner != null) {
+            owner.wake(this);
+        }
+    }
+    
+    void attach(WorldHost host, long now) {
+        this.host = host;
+        this.deadline = now;
+    }
+    
+    // Returns true when the instance should be scheduled again
+    boolean tick() {
+        if (stopRequested) {
+            stop();
+            return false;
+        }
+        
+        long start = System.nanoTime();
+        long lag = Math.max(0L, start - deadline);
+        
+        try {
+            Runnable message;
+            while ((message = mailbox.poll()) != null) {
+                message.run();
+            }
+            state.update((tickNanos << throttleShift) / 1_000_000_000f);
+        } catch (RuntimeException e) {
+            // A broken world takes only itself down
+            Logger.error("World {} faulted and was stopped: {}", name, e);
+            status = Status.FAULTED;
+            exitQuietly();
+            return false;
+        }
+        
+        long elapsed = System.nanoTime() - start;
+        recordTick(lag, elapsed);
+        budget(elapsed);
+        
+        long interval = tickNanos << throttleShift;
+        deadline += interval;
+        long behind = System.nanoTime() - deadline;
+        if (behind > interval * MAX_CATCH_UP_TICKS) {
+            long skip = behind / interval;
+            skippedTicks += skip;
+            deadline += skip * interval;
+        }
+        
+        if (idleCheck.getAsBoolean()) {
+            if (++idleTicks >= hibernateAfterTicks) {
+                status = Status.HIBERNATING;
+                state.suspend();
+                return false;
+            }
+        } else {
+            idleTicks = 0;
+        }
+        return status == Status.RUNNING;
+    }
+    
+    private void recordTick(long lag, long elapsed) {
+        ticks++;
+        lastLagNanos = lag;
+        totalLagNanos += lag;
+        if (lag > maxLagNanos) maxLagNanos = lag;
+        lastTickNanos = elapsed;
+        totalTickNanos += elapsed;
+        if (elapsed > maxTickNanos) maxTickNanos = elapsed;
+    }
+    
+    // Instances that keep blowing their budget run at a reduced rate instead of starving the pool
+    private void budget(long elapsed) {
+        if (budgetNanos <= 0) return;
+        
+        if (elapsed > budgetNanos) {
+            overruns++;
+            if (++consecutiveOverruns >= THROTTLE_AFTER_OVERRUNS && throttleShift < MAX_THROTTLE_SHIFT) {
+                throttleShift++;
+                consecutiveOverruns = 0;
+                Logger.warn("World {} over budget, throttled to 1/{} rate", name, 1 << throttleShift);
+            }
+        } else {
+            consecutiveOverruns = 0;
+            if (throttleShift > 0 && elapsed < budgetNanos / 2) {
+                throttleShift--;
+            }
+        }
+    }
+    
+    // Called by the host with the instance out of the schedule
+    boolean resume(long now) {
+        if (status != Status.HIBERNATING) return false;
+        if (stopRequested) {
+            stop();
+            return false;
+        }
+        status = Status.RUNNING;
+        idleTicks = 0;
+        deadline = now;
+        state.resume();
+        return true;
+    }
+    
+    boolean hasMail() {
+        return !mailbox.isEmpty();
+    }
+    
+    void requestStop() {
+        stopRequested = true;
+    }
+    
+    void stop() {
+        if (status == Status.RUNNING || status == Status.HIBERNATING) {
+            status = Status.STOPPED;
+            exitQuietly();
+        }
+    }
+    
+    private void exitQuietly() {
+        try {
+            state.exit();
+        } catch (RuntimeException e) {
+            Logger.error("World {} failed to exit: {}", name, e);
+        }
+    }
+    
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(deadline, ((WorldInstance) other).deadline);
+    }
+    
+    public String getName() { return name; }
+    public GameState getState() { return state; }
+    public Status getStatus() { return status; }
+    public int getTickRate() { return (int) (1_000_000_000L / tickNanos); }
+    public int getThrottleFactor() { return 1 << throttleShift; }
+    public long getTickCount() { return ticks; }
+    public long getOverrunCount() { return overruns; }
+    public long getSkippedTickCount() { return skippedTicks; }
+    public long getLastLagMicros() { return lastLagNanos / 1000L; }
+    public long getMaxLagMicros() { return maxLagNanos / 1000L; }
+    public long getAverageLagMicros() { return ticks == 0 ? 0 : totalLagNanos / ticks / 1000L; }
+    public long getLastTickMicros() { return lastTickNanos / 1000L; }
+    public long getMaxTickMicros() { return maxTickNanos / 1000L; }
+    public long getAverageTickMicros() { return ticks == 0 ? 0 : totalTickNanos / ticks / 1000L; }
+}
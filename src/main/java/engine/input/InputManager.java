@@ -1,5 +1,7 @@
 package engine.input;
 
+import engine.core.Logger;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -10,7 +12,7 @@ public class InputManager {
     private double mouseX, mouseY;
     
     public void init() {
-        System.out.println("InputManager initialized");
+        Logger.info("InputManager initialized");
     }
     
     public void update() {
@@ -0,0 +1,167 @@
+package engine.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+// Thin client side of the replication protocol: sends input, receives delta snapshots and the tile map
+public class NetClient implements Closeable {
+    private static final long CONNECT_RETRY_NANOS = 250_000_000L;
+    private static final float INTERPOLATION_DELAY_TICKS = 2f;
+    
+    private final DatagramChannel channel;
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(NetProtocol.MAX_PACKET_SIZE);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(64);
+    private final SnapshotHistory history = new SnapshotHistory(64);
+    private final SnapshotCodec codec = new SnapshotCodec();
+    private SnapshotInterpolator interpolator;
+    
+    private int entityId = -1;
+    private int latestTick = NetProtocol.NO_TICK;
+    private long lastConnectAttempt = 0;
+    
+    private int mapWidth, mapHeight, tileSize;
+    private byte[] mapTiles;
+    private boolean[] mapRows;
+    private int firstMissingRow = 0;
+    
+    private long bytesReceived = 0;
+    private long snapshotsReceived = 0;
+    private long snapshotsRejected = 0;
+    
+    public NetClient(InetSocketAddress server) throws IOException {
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.connect(server);
+    }
+    
+    public void poll() throws IOException {
+        long now = System.nanoTime();
+        if (!isConnected() && now - lastConnectAttempt > CONNECT_RETRY_NANOS) {
+            lastConnectAttempt = now;
+            sendBuffer.clear();
+            sendBuffer.put(NetProtocol.CONNECT);
+            send();
+        }
+        
+        while (true) {
+            receiveBuffer.clear();
+            int read;
+            try {
+                read = channel.read(receiveBuffer);
+            } catch (PortUnreachableException e) {
+                return; // Server not up yet, keep retrying the handshake
+            }
+            if (read <= 0) return;
+            
+            bytesReceived += read;
+            receiveBuffer.flip();
+            switch (receiveBuffer.get()) {
+                case NetProtocol.WELCOME -> handleWelcome(receiveBuffer);
+                case NetProtocol.MAP_ROWS -> handleMapRows(receiveBuffer);
+                case NetProtocol.SNAPSHOT -> handleSnapshot(receiveBuffer, now);
+                default -> { }
+            }
+        }
+    }
+    
+    private void handleWelcome(ByteBuffer in) {
+        if (isConnected()) return;
+        
+        entityId = in.getInt();
+        int tickRate = in.getShort();
+        mapWidth = in.getShort();
+        mapHeight = in.getShort();
+        tileSize = in.getShort();
+        mapTiles = new byte[mapWidth * mapHeight];
+        mapRows = new boolean[mapHeight];
+        interpolator = new SnapshotInterpolator(history, 1f / tickRate, INTERPOLATION_DELAY_TICKS);
+    }
+    
+    private void handleMapRows(ByteBuffer in) {
+        if (!isConnected()) return;
+        
+        int startRow = in.getShort();
+        int rowCount = in.getShort();
+        for (int row = startRow; row < startRow + rowCount && row < mapHeight; row++) {
+            in.get(mapTiles, row * mapWidth, mapWidth);
+            mapRows[row] = true;
+        }
+        while (firstMissingRow < mapHeight && mapRows[firstMissingRow]) {
+            firstMissingRow++;
+        }
+    }
+    
+    private void handleSnapshot(ByteBuffer in, long now) {
+        if (!isConnected()) return;
+        
+        int tick = in.getInt();
+        int baseTick = in.getInt();
+        if (tick <= latestTick) return; // Late or duplicate datagram
+        
+        Snapshot base = null;
+        if (baseTick != NetProtocol.NO_TICK) {
+            base = history.get(baseTick);
+            if (base == null || tick - baseTick >= history.capacity()) {
+                snapshotsRejected++;
+                return;
+            }
+        }
+        
+        Snapshot snapshot = history.slotFor(tick);
+        codec.decode(in, base, snapshot);
+        latestTick = tick;
+        interpolator.onReceived(tick, now);
+        snapshotsReceived++;
+    }
+    
+    // The ack tells the server which snapshot to delta against next
+    public void sendInput(int inputBits) throws IOException {
+        if (!isConnected()) return;
+        
+        sendBuffer.clear();
+        sendBuffer.put(NetProtocol.INPUT);
+        sendBuffer.putInt(latestTick);
+        sendBuffer.put((byte) inputBits);
+        sendBuffer.putShort((short) (isMapComplete() ? -1 : firstMissingRow));
+        send();
+    }
+    
+    public boolean sample(Snapshot out) {
+        return interpolator != null && interpolator.sample(System.nanoTime(), out);
+    }
+    
+    private void send() throws IOException {
+        sendBuffer.flip();
+        try {
+            channel.write(sendBuffer);
+        } catch (PortUnreachableException e) {
+            // Retried on the next poll
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (isConnected() && channel.isOpen()) {
+            sendBuffer.clear();
+            sendBuffer.put(NetProtocol.DISCONNECT);
+            send();
+        }
+        channel.close();
+    }
+    
+    public boolean isConnected() { return entityId != -1; }
+    public boolean isMapComplete() { return mapRows != null && firstMissingRow >= mapHeight; }
+    public int getEntityId() { return entityId; }
+    public int getLatestTick() { return latestTick; }
+    public int getMapWidth() { return mapWidth; }
+    public int getMapHeight() { return mapHeight; }
+    public int getTileSize() { return tileSize; }
+    public int getMapTile(int x, int y) { return mapTiles[y * mapWidth + x]; }
+    public long getBytesReceived() { return bytesReceived; }
+    public long getSnapshotsReceived() { return snapshotsReceived; }
+    public long getSnapshotsRejected() { return snapshotsRejected; }
+}
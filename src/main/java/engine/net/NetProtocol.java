@@ -0,0 +1,37 @@
+package engine.net;
+
+public final class NetProtocol {
+    // Client -> server
+    public static final byte CONNECT = 1;
+    public static final byte INPUT = 2;
+    public static final byte DISCONNECT = 3;
+    
+    // Server -> client
+    public static final byte WELCOME = 10;
+    public static final byte SNAPSHOT = 11;
+    public static final byte MAP_ROWS = 12;
+    
+    public static final int NO_TICK = -1;
+    public static final int MAX_PACKET_SIZE = 64 * 1024;
+    
+    // Positions travel as fixed point with this many steps per pixel
+    public static final int POSITION_SCALE = 8;
+    
+    public static final int INPUT_UP = 1;
+    public static final int INPUT_DOWN = 1 << 1;
+    public static final int INPUT_LEFT = 1 << 2;
+    public static final int INPUT_RIGHT = 1 << 3;
+    public static final int INPUT_ACTION = 1 << 4;
+    // INPUT body after the type byte: ack tick (int), input bits (byte), first missing map row (short)
+    public static final int INPUT_BODY_SIZE = 4 + 1 + 2;
+    
+    private NetProtocol() {}
+    
+    public static int quantize(float position) {
+        return Math.round(position * POSITION_SCALE);
+    }
+    
+    public static float dequantize(int quantized) {
+        return quantized / (float) POSITION_SCALE;
+    }
+}
@@ -0,0 +1,73 @@
+package engine.net;
+
+import java.util.Locale;
+
+public class NetStats {
+    private long ticks = 0;
+    private long tickNanosTotal = 0;
+    private long tickNanosMax = 0;
+    private long simulationNanosTotal = 0;
+    private long replicationNanosTotal = 0;
+    
+    private long bytesSent = 0;
+    private long bytesReceived = 0;
+    private long packetsSent = 0;
+    private long packetsReceived = 0;
+    private long packetsDropped = 0;
+    private long packetsRejected = 0;
+    private long fullSnapshots = 0;
+    private long deltaSnapshots = 0;
+    
+    public void recordTick(long simulationNanos, long replicationNanos) {
+        long total = simulationNanos + replicationNanos;
+        ticks++;
+        tickNanosTotal += total;
+        tickNanosMax = Math.max(tickNanosMax, total);
+        simulationNanosTotal += simulationNanos;
+        replicationNanosTotal += replicationNanos;
+    }
+    
+    public void recordSent(int bytes) {
+        if (bytes > 0) {
+            packetsSent++;
+            bytesSent += bytes;
+        } else {
+            packetsDropped++;
+        }
+    }
+    
+    public void recordSnapshot(boolean delta) {
+        if (delta) deltaSnapshots++; else fullSnapshots++;
+    }
+    
+    public void recordReceived(int bytes) {
+        packetsReceived++;
+        bytesReceived += bytes;
+    }
+    
+    // Incoming packets that were malformed or refused
+    public void recordRejected() {
+        packetsRejected++;
+    }
+    
+    public String summary(double seconds, int clients) {
+        double ticksOrOne = Math.max(1, ticks);
+        double snapshots = Math.max(1, fullSnapshots + deltaSnapshots);
+        return String.format(Locale.ROOT,
+            "ticks=%d avgTick=%.3fms maxTick=%.3fms (sim %.3fms, replication %.3fms) | " +
+            "out=%.1f KB/s (%.1f B/s per client, %.1f B/snapshot) in=%.1f KB/s | " +
+            "packets out=%d in=%d dropped=%d rejected=%d | snapshots delta=%d full=%d",
+            ticks, tickNanosTotal / ticksOrOne / 1e6, tickNanosMax / 1e6,
+            simulationNanosTotal / ticksOrOne / 1e6, replicationNanosTotal / ticksOrOne / 1e6,
+            bytesSent / seconds / 1024.0, bytesSent / seconds / Math.max(1, clients), bytesSent / snapshots,
+            bytesReceived / seconds / 1024.0,
+            packetsSent, packetsReceived, packetsDropped, packetsRejected, deltaSnapshots, fullSnapshots);
+    }
+    
+    public long getTicks() { return ticks; }
+    public long getBytesSent() { return bytesSent; }
+    public long getBytesReceived() { return bytesReceived; }
+    public long getFullSnapshots() { return fullSnapshots; }
+    public long getDeltaSnapshots() { return deltaSnapshots; }
+    public long getPacketsRejected() { return packetsRejected; }
+}
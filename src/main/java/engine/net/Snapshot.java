@@ -0,0 +1,102 @@
+package engine.net;
+
+import java.util.Arrays;
+
+// Replicated view of a set of entities at one server tick, kept sorted by entity id
+public class Snapshot {
+    private int tick = NetProtocol.NO_TICK;
+    private int count = 0;
+    private int[] ids = new int[32];
+    private int[] x = new int[32];
+    private int[] y = new int[32];
+    private int[] width = new int[32];
+    private int[] height = new int[32];
+    private String[] textures = new String[32];
+    private long[] sortKeys = new long[0];
+    private int[] scratchInts = new int[0];
+    private String[] scratchTextures = new String[0];
+    
+    public void reset(int tick) {
+        this.tick = tick;
+        Arrays.fill(textures, 0, count, null);
+        count = 0;
+    }
+    
+    public void add(int id, int quantizedX, int quantizedY, int w, int h, String texture) {
+        if (count == ids.length) {
+            int capacity = count * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            width = Arrays.copyOf(width, capacity);
+            height = Arrays.copyOf(height, capacity);
+            textures = Arrays.copyOf(textures, capacity);
+        }
+        ids[count] = id;
+        x[count] = quantizedX;
+        y[count] = quantizedY;
+        width[count] = w;
+        height[count] = h;
+        textures[count] = texture;
+        count++;
+    }
+    
+    public void sortById() {
+        boolean sorted = true;
+        for (int i = 1; i < count && sorted; i++) {
+            sorted = ids[i - 1] <= ids[i];
+        }
+        if (sorted) return;
+        
+        if (sortKeys.length < count) {
+            sortKeys = new long[ids.length];
+            scratchInts = new int[ids.length];
+            scratchTextures = new String[ids.length];
+        }
+        for (int i = 0; i < count; i++) {
+            sortKeys[i] = ((long) ids[i] << 32) | i;
+        }
+        Arrays.sort(sortKeys, 0, count);
+        
+        for (int i = 0; i < count; i++) {
+            ids[i] = (int) (sortKeys[i] >> 32);
+        }
+        permute(x);
+        permute(y);
+        permute(width);
+        permute(height);
+        for (int i = 0; i < count; i++) {
+            scratchTextures[i] = textures[(int) sortKeys[i]];
+        }
+        System.arraycopy(scratchTextures, 0, textures, 0, count);
+        Arrays.fill(scratchTextures, 0, count, null);
+    }
+    
+    private void permute(int[] values) {
+        for (int i = 0; i < count; i++) {
+            scratchInts[i] = values[(int) sortKeys[i]];
+        }
+        System.arraycopy(scratchInts, 0, values, 0, count);
+    }
+    
+    public int indexOf(int id) {
+        int index = Arrays.binarySearch(ids, 0, count, id);
+        return index >= 0 ? index : -1;
+    }
+    
+    public void copyFrom(Snapshot other) {
+        reset(other.tick);
+        for (int i = 0; i < other.count; i++) {
+            add(other.ids[i], other.x[i], other.y[i], other.width[i], other.height[i], other.textures[i]);
+        }
+    }
+    
+    public int getTick() { return tick; }
+    public int size() { return count; }
+    public int id(int index) { return ids[index]; }
+    public int x(int index) { return x[index]; }
+    public int y(int index) { return y[index]; }
+    public int width(int index) { return width[index]; }
+    public int height(int index) { return height[index]; }
+    public String texture(int index) { return textures[index]; }
+}
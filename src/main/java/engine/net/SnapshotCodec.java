@@ -0,0 +1,181 @@
+package engine.net;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Encodes a snapshot relative to a baseline the receiver already acknowledged: removed ids, then only changed fields
+public class SnapshotCodec {
+    private static final int FLAG_POSITION = 1;
+    private static final int FLAG_SIZE = 1 << 1;
+    private static final int FLAG_TEXTURE = 1 << 2;
+    private static final int FLAG_ALL = FLAG_POSITION | FLAG_SIZE | FLAG_TEXTURE;
+    
+    private static final Snapshot EMPTY = new Snapshot();
+    
+    private int[] removed = new int[64];
+    
+    public void encode(Snapshot current, Snapshot base, ByteBuffer out) {
+        if (base == null) base = EMPTY;
+        
+        // Removed ids: present in the baseline but not in the current view
+        int removedCountPosition = out.position();
+        out.putShort((short) 0);
+        int removedCount = 0;
+        long previousId = 0;
+        for (int i = 0, j = 0; i < base.size(); i++) {
+            int id = base.id(i);
+            while (j < current.size() && current.id(j) < id) j++;
+            if (j < current.size() && current.id(j) == id) continue;
+            
+            writeVarLong(out, zigzag(id - previousId));
+            previousId = id;
+            removedCount++;
+        }
+        out.putShort(removedCountPosition, (short) removedCount);
+        
+        // Changed or new entities, fields delta-coded against the baseline values
+        int changedCountPosition = out.position();
+        out.putShort((short) 0);
+        int changedCount = 0;
+        previousId = 0;
+        for (int i = 0, j = 0; i < current.size(); i++) {
+            int id = current.id(i);
+            while (j < base.size() && base.id(j) < id) j++;
+            boolean known = j < base.size() && base.id(j) == id;
+            
+            int flags = FLAG_ALL;
+            int baseX = 0, baseY = 0, baseW = 0, baseH = 0;
+            if (known) {
+                baseX = base.x(j);
+                baseY = base.y(j);
+                baseW = base.width(j);
+                baseH = base.height(j);
+                flags = 0;
+                if (current.x(i) != baseX || current.y(i) != baseY) flags |= FLAG_POSITION;
+                if (current.width(i) != baseW || current.height(i) != baseH) flags |= FLAG_SIZE;
+                if (!current.texture(i).equals(base.texture(j))) flags |= FLAG_TEXTURE;
+                if (flags == 0) continue;
+            }
+            
+            writeVarLong(out, zigzag(id - previousId));
+            previousId = id;
+            out.put((byte) flags);
+            if ((flags & FLAG_POSITION) != 0) {
+                writeVarLong(out, zigzag(current.x(i) - baseX));
+                writeVarLong(out, zigzag(current.y(i) - baseY));
+            }
+            if ((flags & FLAG_SIZE) != 0) {
+                writeVarLong(out, zigzag(current.width(i) - baseW));
+                writeVarLong(out, zigzag(current.height(i) - baseH));
+            }
+            if ((flags & FLAG_TEXTURE) != 0) {
+                writeString(out, current.texture(i));
+            }
+            changedCount++;
+        }
+        out.putShort(changedCountPosition, (short) changedCount);
+    }
+    
+    public void decode(ByteBuffer in, Snapshot base, Snapshot out) {
+        if (base == null) base = EMPTY;
+        
+        int removedCount = Short.toUnsignedInt(in.getShort());
+        if (removed.length < removedCount) {
+            removed = new int[Math.max(removedCount, removed.length * 2)];
+        }
+        long previousId = 0;
+        for (int i = 0; i < removedCount; i++) {
+            previousId += unzigzag(readVarLong(in));
+            removed[i] = (int) previousId;
+        }
+        
+        // Merge the baseline with the changes; both are in ascending id order
+        int changedCount = Short.toUnsignedInt(in.getShort());
+        int baseIndex = 0;
+        int removedIndex = 0;
+        previousId = 0;
+        for (int c = 0; c < changedCount; c++) {
+            previousId += unzigzag(readVarLong(in));
+            int id = (int) previousId;
+            
+            while (baseIndex < base.size() && base.id(baseIndex) < id) {
+                removedIndex = copyUnlessRemoved(base, baseIndex++, removedCount, removedIndex, out);
+            }
+            boolean known = baseIndex < base.size() && base.id(baseIndex) == id;
+            
+            int x = known ? base.x(baseIndex) : 0;
+            int y = known ? base.y(baseIndex) : 0;
+            int w = known ? base.width(baseIndex) : 0;
+            int h = known ? base.height(baseIndex) : 0;
+            String texture = known ? base.texture(baseIndex) : "";
+            if (known) baseIndex++;
+            
+            int flags = in.get();
+            if ((flags & FLAG_POSITION) != 0) {
+                x += (int) unzigzag(readVarLong(in));
+                y += (int) unzigzag(readVarLong(in));
+            }
+            if ((flags & FLAG_SIZE) != 0) {
+                w += (int) unzigzag(readVarLong(in));
+                h += (int) unzigzag(readVarLong(in));
+            }
+            if ((flags & FLAG_TEXTURE) != 0) {
+                texture = readString(in);
+            }
+            out.add(id, x, y, w, h, texture);
+        }
+        while (baseIndex < base.size()) {
+            removedIndex = copyUnlessRemoved(base, baseIndex++, removedCount, removedIndex, out);
+        }
+    }
+    
+    private int copyUnlessRemoved(Snapshot base, int index, int removedCount, int removedIndex, Snapshot out) {
+        int id = base.id(index);
+        while (removedIndex < removedCount && removed[removedIndex] < id) removedIndex++;
+        if (removedIndex < removedCount && removed[removedIndex] == id) return removedIndex;
+        
+        out.add(id, base.x(index), base.y(index), base.width(index), base.height(index), base.texture(index));
+        return removedIndex;
+    }
+    
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    static void writeVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+    
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+    private static void writeString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.put(bytes);
+    }
+    
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
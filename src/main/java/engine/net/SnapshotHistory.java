@@ -0,0 +1,35 @@
+package engine.net;
+
+// Fixed ring of recent snapshots addressed by tick; old ticks are overwritten in place
+public class SnapshotHistory {
+    private final Snapshot[] snapshots;
+    
+    public SnapshotHistory(int capacity) {
+        snapshots = new Snapshot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            snapshots[i] = new Snapshot();
+        }
+    }
+    
+    public Snapshot slotFor(int tick) {
+        Snapshot snapshot = snapshots[Math.floorMod(tick, snapshots.length)];
+        snapshot.reset(tick);
+        return snapshot;
+    }
+    
+    public Snapshot get(int tick) {
+        if (tick == NetProtocol.NO_TICK) return null;
+        Snapshot snapshot = snapshots[Math.floorMod(tick, snapshots.length)];
+        return snapshot.getTick() == tick ? snapshot : null;
+    }
+    
+    public void clear() {
+        for (Snapshot snapshot : snapshots) {
+            snapshot.reset(NetProtocol.NO_TICK);
+        }
+    }
+    
+    public int capacity() {
+        return snapshots.length;
+    }
+}
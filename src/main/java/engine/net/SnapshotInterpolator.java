@@ -0,0 +1,69 @@
+package engine.net;
+
+// Renders slightly in the past so there are usually two received snapshots to blend between
+public class SnapshotInterpolator {
+    private final SnapshotHistory history;
+    private final float tickSeconds;
+    private final float delayTicks;
+    private int latestTick = NetProtocol.NO_TICK;
+    private long latestReceivedNanos = 0;
+    
+    public SnapshotInterpolator(SnapshotHistory history, float tickSeconds, float delayTicks) {
+        this.history = history;
+        this.tickSeconds = tickSeconds;
+        this.delayTicks = delayTicks;
+    }
+    
+    public void onReceived(int tick, long nowNanos) {
+        if (tick > latestTick) {
+            latestTick = tick;
+            latestReceivedNanos = nowNanos;
+        }
+    }
+    
+    public boolean sample(long nowNanos, Snapshot out) {
+        if (latestTick == NetProtocol.NO_TICK) return false;
+        
+        // Estimate the current server tick, never extrapolating more than one tick past the newest data
+        float sinceLatest = (nowNanos - latestReceivedNanos) / 1_000_000_000f / tickSeconds;
+        float renderTick = latestTick + Math.min(1f, sinceLatest) - delayTicks;
+        
+        Snapshot from = null;
+        int oldest = latestTick - history.capacity() + 1;
+        for (int tick = (int) Math.floor(renderTick); tick >= oldest && from == null; tick--) {
+            from = history.get(tick);
+        }
+        Snapshot to = null;
+        int start = from != null ? from.getTick() + 1 : oldest;
+        for (int tick = start; tick <= latestTick && to == null; tick++) {
+            to = history.get(tick);
+        }
+        
+        if (from == null || to == null) {
+            Snapshot only = from != null ? from : to;
+            if (only == null) return false;
+            out.copyFrom(only);
+            return true;
+        }
+        
+        float alpha = (renderTick - from.getTick()) / (to.getTick() - from.getTick());
+        alpha = Math.max(0f, Math.min(1f, alpha));
+        
+        out.reset(to.getTick());
+        for (int i = 0; i < to.size(); i++) {
+            int previous = from.indexOf(to.id(i));
+            int x = to.x(i);
+            int y = to.y(i);
+            if (previous >= 0) {
+                x = Math.round(from.x(previous) + (x - from.x(previous)) * alpha);
+                y = Math.round(from.y(previous) + (y - from.y(previous)) * alpha);
+            }
+            out.add(to.id(i), x, y, to.width(i), to.height(i), to.texture(i));
+        }
+        return true;
+    }
+    
+    public int getLatestTick() {
+        return latestTick;
+    }
+}
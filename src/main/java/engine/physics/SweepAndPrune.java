@@ -0,0 +1,81 @@
+package engine.physics;
+
+import java.util.Arrays;
+
+public class SweepAndPrune {
+    private float[] minX = new float[64];
+    private float[] minY = new float[64];
+    private float[] maxX = new float[64];
+    private float[] maxY = new float[64];
+    private long[] sortKeys = new long[64];
+    private int count = 0;
+    
+    private int[] pairA = new int[64];
+    private int[] pairB = new int[64];
+    private int pairCount = 0;
+    
+    public void clear() {
+        count = 0;
+        pairCount = 0;
+    }
+    
+    // Returns the handle of the box, which is its insertion index for this pass
+    public int add(float x, float y, float width, float height) {
+        if (count == minX.length) {
+            int capacity = count * 2;
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+            sortKeys = Arrays.copyOf(sortKeys, capacity);
+        }
+        minX[count] = x;
+        minY[count] = y;
+        maxX[count] = x + width;
+        maxY[count] = y + height;
+        return count++;
+    }
+    
+    public int findPairs() {
+        pairCount = 0;
+        
+        // Sort handles by minX packed into primitive keys; coherent frames are nearly sorted already
+        for (int i = 0; i < count; i++) {
+            sortKeys[i] = ((long) sortableBits(minX[i]) << 32) | i;
+        }
+        Arrays.sort(sortKeys, 0, count);
+        
+        for (int i = 0; i < count; i++) {
+            int a = (int) sortKeys[i];
+            float aMaxX = maxX[a];
+            for (int j = i + 1; j < count; j++) {
+                int b = (int) sortKeys[j];
+                if (minX[b] >= aMaxX) break;
+                if (minY[a] < maxY[b] && minY[b] < maxY[a]) {
+                    addPair(a, b);
+                }
+            }
+        }
+        return pairCount;
+    }
+    
+    private void addPair(int a, int b) {
+        if (pairCount == pairA.length) {
+            pairA = Arrays.copyOf(pairA, pairCount * 2);
+            pairB = Arrays.copyOf(pairB, pairCount * 2);
+        }
+        pairA[pairCount] = a;
+        pairB[pairCount] = b;
+        pairCount++;
+    }
+    
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+    
+    public int getCount() { return count; }
+    public int getPairCount() { return pairCount; }
+    public int getPairA(int pair) { return pairA[pair]; }
+    public int getPairB(int pair) { return pairB[pair]; }
+}
@@ -0,0 +1,77 @@
+package engine.physics;
+
+import engine.graphics.TileMap;
+
+public class TileCollider {
+    private static final float EPSILON = 0.001f;
+    
+    private final TileMap tileMap;
+    
+    public TileCollider(TileMap tileMap) {
+        this.tileMap = tileMap;
+    }
+    
+    // Returns how far the box can travel along X before touching a solid tile
+    public float sweepX(float x, float y, float width, float height, float dx) {
+        if (dx == 0f) return 0f;
+        
+        int tileSize = tileMap.getTileSize();
+        int rowStart = floorDiv(y, tileSize);
+        int rowEnd = floorDiv(y + height - EPSILON, tileSize);
+        
+        if (dx > 0f) {
+            float edge = x + width;
+            int first = floorDiv(edge - EPSILON, tileSize) + 1;
+            int last = floorDiv(edge + dx - EPSILON, tileSize);
+            if (first <= last) {
+                int col = tileMap.findSolidColumn(first, last, rowStart, rowEnd);
+                if (col != TileMap.NONE) return Math.max(0f, col * tileSize - edge);
+            }
+        } else {
+            int first = floorDiv(x, tileSize) - 1;
+            int last = floorDiv(x + dx, tileSize);
+            if (first >= last) {
+                int col = tileMap.findSolidColumn(first, last, rowStart, rowEnd);
+                if (col != TileMap.NONE) return Math.min(0f, (col + 1) * tileSize - x);
+            }
+        }
+        return dx;
+    }
+    
+    // Returns how far the box can travel along Y before touching a solid tile
+    public float sweepY(float x, float y, float width, float height, float dy) {
+        if (dy == 0f) return 0f;
+        
+        int tileSize = tileMap.getTileSize();
+        int colStart = floorDiv(x, tileSize);
+        int colEnd = floorDiv(x + width - EPSILON, tileSize);
+        
+        if (dy > 0f) {
+            float edge = y + height;
+            int first = floorDiv(edge - EPSILON, tileSize) + 1;
+            int last = floorDiv(edge + dy - EPSILON, tileSize);
+            if (first <= last) {
+                int row = tileMap.findSolidRow(first, last, colStart, colEnd);
+                if (row != TileMap.NONE) return Math.max(0f, row * tileSize - edge);
+            }
+        } else {
+            int first = floorDiv(y, tileSize) - 1;
+            int last = floorDiv(y + dy, tileSize);
+            if (first >= last) {
+                int row = tileMap.findSolidRow(first, last, colStart, colEnd);
+                if (row != TileMap.NONE) return Math.min(0f, (row + 1) * tileSize - y);
+            }
+        }
+        return dy;
+    }
+    
+    public boolean overlapsSolid(float x, float y, float width, float height) {
+        int tileSize = tileMap.getTileSize();
+        return tileMap.anySolidInRect(floorDiv(x, tileSize), floorDiv(y, tileSize),
+                                      floorDiv(x + width - EPSILON, tileSize), floorDiv(y + height - EPSILON, tileSize));
+    }
+    
+    private static int floorDiv(float value, int tileSize) {
+        return (int) Math.floor(value / tileSize);
+    }
+}
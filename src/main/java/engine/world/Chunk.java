@@ -0,0 +1,47 @@
+package engine.world;
+
+import engine.ecs.AIComponent;
+import engine.graphics.Tile;
+
+import java.util.List;
+
+// A generated square of tiles plus the NPCs its spawn pass placed; coordinates in spawns are global tiles
+public final class Chunk {
+    
+    public record Spawn(int tileX, int tileY, AIComponent.AIBehavior behavior) {}
+    
+    private final int chunkX, chunkY;
+    private final byte[] tiles;
+    private final List<Spawn> spawns;
+    
+    Chunk(int chunkX, int chunkY, byte[] tiles, List<Spawn> spawns) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.tiles = tiles;
+        this.spawns = List.copyOf(spawns);
+    }
+    
+    public Tile getTile(int localX, int localY) {
+        return Tile.byId(tiles[localY * WorldGenerator.CHUNK_SIZE + localX]);
+    }
+    
+    // Fingerprint of the content, for checking that two runs produced the same world
+    public long checksum() {
+        long h = Noise.hash(chunkX, chunkY, tiles.length);
+        for (int i = 0; i < tiles.length; i += 8) {
+            long word = 0;
+            for (int j = 0; j < 8 && i + j < tiles.length; j++) {
+                word |= (tiles[i + j] & 0xFFL) << (j * 8);
+            }
+            h = Noise.hash(h ^ word, i, 0);
+        }
+        for (Spawn spawn : spawns) {
+            h = Noise.hash(h, spawn.tileX(), spawn.tileY() * 31 + spawn.behavior().ordinal());
+        }
+        return h;
+    }
+    
+    public int getChunkX() { return chunkX; }
+    public int getChunkY() { return chunkY; }
+    public List<Spawn> getSpawns() { return spawns; }
+}
@@ -0,0 +1,52 @@
+package engine.world;
+
+// Stateless lattice hashing and value noise. Every output is a pure function of (seed, coordinates),
+// which is what lets chunks be generated in any order, on any thread, and still agree at their borders.
+public final class Noise {
+    
+    private Noise() {}
+    
+    public static long hash(long seed, int x, int y) {
+        long h = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (y * 0xC2B2AE3D27D4EB4FL);
+        // splitmix64 finalizer
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+    
+    // Uniform in [0, 1)
+    public static float unit(long seed, int x, int y) {
+        return (hash(seed, x, y) >>> 40) * 0x1.0p-24f;
+    }
+    
+    // Smoothly interpolated lattice values in [0, 1)
+    public static float value(long seed, float x, float y) {
+        int x0 = (int) Math.floor(x), y0 = (int) Math.floor(y);
+        float fx = fade(x - x0), fy = fade(y - y0);
+        
+        float top = lerp(unit(seed, x0, y0), unit(seed, x0 + 1, y0), fx);
+        float bottom = lerp(unit(seed, x0, y0 + 1), unit(seed, x0 + 1, y0 + 1), fx);
+        return lerp(top, bottom, fy);
+    }
+    
+    // Octaves of value noise, each at double frequency and half amplitude, normalized back to [0, 1)
+    public static float fractal(long seed, float x, float y, int octaves) {
+        float sum = 0f, amplitude = 1f, total = 0f;
+        for (int i = 0; i < octaves; i++) {
+            sum += value(seed + i * 0x632BE59BD9B4E019L, x, y) * amplitude;
+            total += amplitude;
+            amplitude *= 0.5f;
+            x *= 2f;
+            y *= 2f;
+        }
+        return sum / total;
+    }
+    
+    private static float fade(float t) {
+        return t * t * (3f - 2f * t);
+    }
+    
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+}
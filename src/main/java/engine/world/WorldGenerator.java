@@ -0,0 +1,183 @@
+package engine.world;
+
+import engine.ecs.AIComponent;
+import engine.graphics.Tile;
+import engine.graphics.TileMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Generates chunks from a world seed in three passes: terrain from layered noise, decoration, then NPC spawns.
+// A chunk depends only on the seed and its coordinates, never on neighbouring chunks having been generated,
+// so chunks can be produced on demand, in parallel and in any order with identical results.
+public class WorldGenerator {
+    public static final int CHUNK_SIZE = 32;
+    
+    private static final float ELEVATION_SCALE = 1f / 48f;
+    private static final float MOISTURE_SCALE = 1f / 32f;
+    private static final float WATER_LEVEL = 0.32f;
+    private static final float ROCK_LEVEL = 0.72f;
+    private static final float FOREST_MOISTURE = 0.62f;
+    private static final float FOREST_DENSITY = 0.55f;
+    private static final float LONE_TREE_CHANCE = 0.02f;
+    private static final float BOULDER_CHANCE = 0.006f;
+    private static final int MAX_SPAWNS_PER_CHUNK = 2;
+    // Below this many chunks a task stops splitting and generates directly
+    private static final int SPLIT_THRESHOLD = 4;
+    
+    // Distinct streams derived from the seed so the layers don't correlate
+    private final long elevationSeed, moistureSeed, decorationSeed, spawnSeed;
+    private final long seed;
+    
+    public WorldGenerator(long seed) {
+        this.seed = seed;
+        this.elevationSeed = Noise.hash(seed, 1, 0);
+        this.moistureSeed = Noise.hash(seed, 2, 0);
+        this.decorationSeed = Noise.hash(seed, 3, 0);
+        this.spawnSeed = Noise.hash(seed, 4, 0);
+    }
+    
+    public Chunk generate(int chunkX, int chunkY) {
+        byte[] tiles = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        int originX = chunkX * CHUNK_SIZE, originY = chunkY * CHUNK_SIZE;
+        
+        for (int y = 0; y < CHUNK_SIZE; y++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                tiles[y * CHUNK_SIZE + x] = (byte) terrainAt(originX + x, originY + y).id();
+            }
+        }
+        
+        decorate(tiles, originX, originY);
+        List<Chunk.Spawn> spawns = spawn(tiles, chunkX, chunkY);
+        return new Chunk(chunkX, chunkY, tiles, spawns);
+    }
+    
+    // Terrain pass: a pure function of the global tile, so neighbour checks across chunk borders stay consistent
+    public Tile terrainAt(int tileX, int tileY) {
+        float elevation = Noise.fractal(elevationSeed, tileX * ELEVATION_SCALE, tileY * ELEVATION_SCALE, 4);
+        if (elevation < WATER_LEVEL) return Tile.WATER;
+        if (elevation > ROCK_LEVEL) return Tile.STONE;
+        
+        float moisture = Noise.fractal(moistureSeed, tileX * MOISTURE_SCALE, tileY * MOISTURE_SCALE, 3);
+        if (moisture > FOREST_MOISTURE && Noise.unit(elevationSeed ^ moistureSeed, tileX, tileY) < FOREST_DENSITY) {
+            return Tile.TREE;
+        }
+        return Tile.GRASS;
+    }
+    
+    // Decoration pass: lone trees and boulders on open grass, kept off shorelines
+    private void decorate(byte[] tiles, int originX, int originY) {
+        for (int y = 0; y < CHUNK_SIZE; y++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                int i = y * CHUNK_SIZE + x;
+                if (tiles[i] != Tile.GRASS.id()) continue;
+                
+                int tileX = originX + x, tileY = originY + y;
+                float roll = Noise.unit(decorationSeed, tileX, tileY);
+                if (roll >= LONE_TREE_CHANCE + BOULDER_CHANCE || nearWater(tileX, tileY)) continue;
+                
+                tiles[i] = (byte) (roll < LONE_TREE_CHANCE ? Tile.TREE : Tile.STONE).id();
+            }
+        }
+    }
+    
+    private boolean nearWater(int tileX, int tileY) {
+        return terrainAt(tileX - 1, tileY) == Tile.WATER || terrainAt(tileX + 1, tileY) == Tile.WATER
+            || terrainAt(tileX, tileY - 1) == Tile.WATER || terrainAt(tileX, tileY + 1) == Tile.WATER;
+    }
+    
+    // Spawn pass: a few NPCs per chunk on walkable tiles, from a generator seeded by the chunk coordinate
+    private List<Chunk.Spawn> spawn(byte[] tiles, int chunkX, int chunkY) {
+        Random random = new Random(Noise.hash(spawnSeed, chunkX, chunkY));
+        int count = random.nextInt(MAX_SPAWNS_PER_CHUNK + 1);
+        List<Chunk.Spawn> spawns = new ArrayList<>(count);
+        
+        for (int n = 0; n < count; n++) {
+            for (int attempt = 0; attempt < 16; attempt++) {
+                int x = random.nextInt(CHUNK_SIZE), y = random.nextInt(CHUNK_SIZE);
+                if (tiles[y * CHUNK_SIZE + x] != Tile.GRASS.id()) continue;
+                
+                var behavior = random.nextInt(3) == 0 ? AIComponent.AIBehavior.IDLE : AIComponent.AIBehavior.WANDER;
+                spawns.add(new Chunk.Spawn(chunkX * CHUNK_SIZE + x, chunkY * CHUNK_SIZE + y, behavior));
+                break;
+            }
+        }
+        return spawns;
+    }
+    
+    // Generates chunks[i] for (chunkXs[i], chunkYs[i]) with fork/join; results land by index, not completion order
+    public Chunk[] generateAll(int[] chunkXs, int[] chunkYs, ForkJoinPool pool) {
+        Chunk[] chunks = new Chunk[chunkXs.length];
+        pool.invoke(new GenerateTask(chunkXs, chunkYs, chunks, 0, chunks.length));
+        return chunks;
+    }
+    
+    private final class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final int[] chunkXs, chunkYs;
+        private final Chunk[] out;
+        private final int from, to;
+        
+        GenerateTask(int[] chunkXs, int[] chunkYs, Chunk[] out, int from, int to) {
+            this.chunkXs = chunkXs;
+            this.chunkYs = chunkYs;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    out[i] = generate(chunkXs[i], chunkYs[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new GenerateTask(chunkXs, chunkYs, out, from, mid),
+                      new GenerateTask(chunkXs, chunkYs, out, mid, to));
+        }
+    }
+    
+    // Fills the map with the world region whose top-left tile is (originTileX, originTileY); returns the chunks used
+    public Chunk[] fill(TileMap map, int originTileX, int originTileY, ForkJoinPool pool) {
+        int firstX = Math.floorDiv(originTileX, CHUNK_SIZE), lastX = Math.floorDiv(originTileX + map.getWidth() - 1, CHUNK_SIZE);
+        int firstY = Math.floorDiv(originTileY, CHUNK_SIZE), lastY = Math.floorDiv(originTileY + map.getHeight() - 1, CHUNK_SIZE);
+        
+        int count = (lastX - firstX + 1) * (lastY - firstY + 1);
+        int[] xs = new int[count], ys = new int[count];
+        int n = 0;
+        for (int cy = firstY; cy <= lastY; cy++) {
+            for (int cx = firstX; cx <= lastX; cx++) {
+                xs[n] = cx;
+                ys[n++] = cy;
+            }
+        }
+        
+        Chunk[] chunks = generateAll(xs, ys, pool);
+        for (Chunk chunk : chunks) {
+            apply(chunk, map, originTileX, originTileY);
+        }
+        return chunks;
+    }
+    
+    // Copies the part of the chunk that overlaps the map
+    public static void apply(Chunk chunk, TileMap map, int originTileX, int originTileY) {
+        int baseX = chunk.getChunkX() * CHUNK_SIZE - originTileX;
+        int baseY = chunk.getChunkY() * CHUNK_SIZE - originTileY;
+        for (int y = 0; y < CHUNK_SIZE; y++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                if (map.isValidPosition(baseX + x, baseY + y)) {
+                    map.setTile(baseX + x, baseY + y, chunk.getTile(x, y));
+                }
+            }
+        }
+    }
+    
+    public long getSeed() { return seed; }
+}
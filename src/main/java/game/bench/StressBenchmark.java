@@ -0,0 +1,288 @@
+package game.bench;
+
+import engine.core.Logger;
+import engine.graphics.RenderEngine;
+import engine.input.InputManager;
+import game.states.StressTestState;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+// Ramps StressTestState from a small crowd up to maxEntities for each thread count and writes a CSV and JSON
+// scaling report. With T threads the world is split into T horizontal strips, each its own state ticked in parallel,
+// so entity density stays the same across thread counts.
+// Usage: StressBenchmark [maxEntities=1000000] [threads=1,2,4] [frames=120] [out=stress-report] [label=local]
+public class StressBenchmark {
+    private static final int START_ENTITIES = 1000;
+    private static final int RAMP_FACTOR = 10;
+    private static final int WARMUP_FRAMES = 20;
+    // The map grows with the crowd so density, and with it collision work per entity, stays constant
+    private static final int TILES_PER_ENTITY = 2;
+    private static final float FRAME_SECONDS = 1f / 60f;
+    
+    private record Step(
+        int entities,
+        int threads,
+        int mapWidth,
+        int mapHeight,
+        String status,
+        long spawnMillis,
+        double tickMeanMs,
+        double tickP95Ms,
+        double tickMaxMs,
+        double renderMeanMs,
+        double renderP95Ms,
+        double renderMaxMs,
+        double heapRetainedMb,
+        double heapPeakMb,
+        long gcCount,
+        long gcTotalMs,
+        long gcMaxPauseMs,
+        long contacts
+    ) {}
+    
+    public static void main(String[] args) throws Exception {
+        int maxEntities = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] threadCounts = args.length > 1 ? parseInts(args[1]) : new int[] {1, 2, 4};
+        int frames = args.length > 2 ? Integer.parseInt(args[2]) : 120;
+        String out = args.length > 3 ? args[3] : "stress-report";
+        String label = args.length > 4 ? args[4] : "local";
+        
+        // A benchmark should never pop up windows; draw into the back buffers only
+        System.setProperty("java.awt.headless", "true");
+        // SPACE presses in every strip would otherwise flood the log with dialogue
+        Logger.setLevel(Logger.Level.WARN);
+        
+        List<Step> steps = new ArrayList<>();
+        for (int threads : threadCounts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            for (long count = START_ENTITIES; count <= maxEntities; count *= RAMP_FACTOR) {
+                Step step = runStep((int) count, threads, frames, pool);
+                steps.add(step);
+                System.out.println(format(step));
+                if (!step.status().equals("ok")) break;
+            }
+            pool.shutdown();
+        }
+        
+        writeCsv(Path.of(out + ".csv"), steps);
+        writeJson(Path.of(out + ".json"), steps, label, frames);
+        System.out.println("Wrote " + out + ".csv and " + out + ".json");
+        Logger.shutdown();
+    }
+    
+    private static Step runStep(int entityCount, int threads, int frames, ForkJoinPool pool) {
+        int mapSize = Math.max(50, (int) Math.sqrt((double) entityCount * TILES_PER_ENTITY));
+        int stripHeight = Math.max(3, mapSize / threads);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<StressTestState> strips = new ArrayList<>();
+        
+        try {
+            long spawnStart = System.nanoTime();
+            StressTestState.Config base = StressTestState.Config.of(entityCount / threads, mapSize).withMapSize(mapSize, stripHeight);
+            for (int i = 0; i < threads; i++) {
+                InputManager input = new InputManager();
+                StressTestState strip = new StressTestState(input, new RenderEngine(input), base.withSeed(base.seed() + i));
+                strip.preload();
+                strip.enter();
+                strips.add(strip);
+            }
+            long spawnMillis = (System.nanoTime() - spawnStart) / 1_000_000L;
+            
+            List<Callable<Void>> ticks = new ArrayList<>();
+            for (StressTestState strip : strips) {
+                ticks.add(() -> {
+                    strip.update(FRAME_SECONDS);
+                    return null;
+                });
+            }
+            
+            for (int i = 0; i < WARMUP_FRAMES; i++) {
+                frame(strips, ticks, pool);
+            }
+            
+            System.gc();
+            long heapRetained = memory.getHeapMemoryUsage().getUsed();
+            long heapPeak = heapRetained;
+            GcSample gcStart = GcSample.now();
+            long lastGcCount = gcStart.count;
+            long maxPause = 0;
+            
+            long[] tickNanos = new long[frames];
+            long[] renderNanos = new long[frames];
+            for (int i = 0; i < frames; i++) {
+                long start = System.nanoTime();
+                for (var future : pool.invokeAll(ticks)) {
+                    future.get();
+                }
+                long ticked = System.nanoTime();
+                for (StressTestState strip : strips) {
+                    strip.render();
+                }
+                tickNanos[i] = ticked - start;
+                renderNanos[i] = System.nanoTime() - ticked;
+                
+                heapPeak = Math.max(heapPeak, memory.getHeapMemoryUsage().getUsed());
+                GcSample sample = GcSample.now();
+                if (sample.count != lastGcCount) {
+                    maxPause = Math.max(maxPause, sample.lastPauseMillis);
+                    lastGcCount = sample.count;
+                }
+            }
+            GcSample gcEnd = GcSample.now();
+            
+            long contacts = 0;
+            for (StressTestState strip : strips) {
+                contacts += strip.getMovementSystem().getContactCount();
+            }
+            
+            return new Step(entityCount, threads, mapSize, stripHeight * threads, "ok", spawnMillis,
+                            mean(tickNanos), percentile(tickNanos, 0.95), max(tickNanos),
+                            mean(renderNanos), percentile(renderNanos, 0.95), max(renderNanos),
+                            heapRetained / 1048576.0, heapPeak / 1048576.0,
+                            gcEnd.count - gcStart.count, gcEnd.totalMillis - gcStart.totalMillis, maxPause, contacts);
+        } catch (OutOfMemoryError e) {
+            strips.clear();
+            System.gc();
+            return failed(entityCount, threads, mapSize, "oom");
+        } catch (Exception e) {
+            strips.clear();
+            // Strips ticked on the pool report running out of memory wrapped in an ExecutionException
+            if (e.getCause() instanceof OutOfMemoryError) {
+                System.gc();
+                return failed(entityCount, threads, mapSize, "oom");
+            }
+            Logger.error("Stress step {} failed: {}", entityCount, e);
+            return failed(entityCount, threads, mapSize, "error");
+        }
+    }
+    
+    private static void frame(List<StressTestState> strips, List<Callable<Void>> ticks, ForkJoinPool pool) throws Exception {
+        for (var future : pool.invokeAll(ticks)) {
+            future.get();
+        }
+        for (StressTestState strip : strips) {
+            strip.render();
+        }
+    }
+    
+    private static Step failed(int entities, int threads, int mapSize, String status) {
+        return new Step(entities, threads, mapSize, mapSize, status, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+    
+    // Collector counters summed over all collectors; the last pause comes from HotSpot's extension when present
+    private record GcSample(long count, long totalMillis, long lastPauseMillis) {
+        static GcSample now() {
+            long count = 0, total = 0, lastPause = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+                total += Math.max(0, gc.getCollectionTime());
+                if (gc instanceof com.sun.management.GarbageCollectorMXBean hotspot && hotspot.getLastGcInfo() != null) {
+                    lastPause = Math.max(lastPause, hotspot.getLastGcInfo().getDuration());
+                }
+            }
+            return new GcSample(count, total, lastPause);
+        }
+    }
+    
+    private static double mean(long[] nanos) {
+        long sum = 0;
+        for (long n : nanos) sum += n;
+        return nanos.length == 0 ? 0 : sum / (double) nanos.length / 1e6;
+    }
+    
+    private static double percentile(long[] nanos, double p) {
+        if (nanos.length == 0) return 0;
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+    
+    private static double max(long[] nanos) {
+        long max = 0;
+        for (long n : nanos) max = Math.max(max, n);
+        return max / 1e6;
+    }
+    
+    private static int[] parseInts(String csv) {
+        return Arrays.stream(csv.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+    
+    private static String format(Step s) {
+        return String.format(Locale.ROOT,
+            "%8d entities %2d threads %-5s tick %8.2f ms (p95 %8.2f) render %7.2f ms heap %7.1f MB gc %3d (%d ms, max %d ms)",
+            s.entities(), s.threads(), s.status(), s.tickMeanMs(), s.tickP95Ms(), s.renderMeanMs(),
+            s.heapRetainedMb(), s.gcCount(), s.gcTotalMs(), s.gcMaxPauseMs());
+    }
+    
+    private static final String[] COLUMNS = {
+        "entities", "threads", "map_width", "map_height", "status", "spawn_ms",
+        "tick_mean_ms", "tick_p95_ms", "tick_max_ms", "render_mean_ms", "render_p95_ms", "render_max_ms",
+        "heap_retained_mb", "heap_peak_mb", "gc_count", "gc_total_ms", "gc_max_pause_ms", "contacts"
+    };
+    
+    private static Object[] values(Step s) {
+        return new Object[] {
+            s.entities(), s.threads(), s.mapWidth(), s.mapHeight(), s.status(), s.spawnMillis(),
+            s.tickMeanMs(), s.tickP95Ms(), s.tickMaxMs(), s.renderMeanMs(), s.renderP95Ms(), s.renderMaxMs(),
+            s.heapRetainedMb(), s.heapPeakMb(), s.gcCount(), s.gcTotalMs(), s.gcMaxPauseMs(), s.contacts()
+        };
+    }
+    
+    private static String number(Object value) {
+        return value instanceof Double d ? String.format(Locale.ROOT, "%.3f", d) : String.valueOf(value);
+    }
+    
+    private static void writeCsv(Path path, List<Step> steps) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            writer.println(String.join(",", COLUMNS));
+            for (Step step : steps) {
+                Object[] values = values(step);
+                StringBuilder line = new StringBuilder();
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) line.append(',');
+                    line.append(number(values[i]));
+                }
+                writer.println(line);
+            }
+        }
+    }
+    
+    private static void writeJson(Path path, List<Step> steps, String label, int frames) throws IOException {
+        Runtime runtime = Runtime.getRuntime();
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            writer.println("{");
+            writer.printf(Locale.ROOT, "  \"label\": \"%s\",%n", label.replace("\"", "'"));
+            writer.printf(Locale.ROOT, "  \"timestamp\": \"%s\",%n", Instant.now());
+            writer.printf(Locale.ROOT, "  \"java\": \"%s\",%n", System.getProperty("java.version"));
+            writer.printf(Locale.ROOT, "  \"processors\": %d,%n", runtime.availableProcessors());
+            writer.printf(Locale.ROOT, "  \"max_heap_mb\": %d,%n", runtime.maxMemory() / 1048576L);
+            writer.printf(Locale.ROOT, "  \"frames_per_step\": %d,%n", frames);
+            writer.println("  \"steps\": [");
+            for (int s = 0; s < steps.size(); s++) {
+                Object[] values = values(steps.get(s));
+                StringBuilder line = new StringBuilder("    {");
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) line.append(", ");
+                    line.append('"').append(COLUMNS[i]).append("\": ");
+                    line.append(values[i] instanceof String text ? "\"" + text + "\"" : number(values[i]));
+                }
+                writer.println(line.append(s < steps.size() - 1 ? "}," : "}"));
+            }
+            writer.println("  ]");
+            writer.println("}");
+        }
+    }
+}
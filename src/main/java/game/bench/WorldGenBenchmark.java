@@ -0,0 +1,72 @@
+package game.bench;
+
+import engine.world.Chunk;
+import engine.world.Noise;
+import engine.world.WorldGenerator;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+// Measures chunks generated per second for each thread count and checks every run produced the same world.
+// Usage: WorldGenBenchmark [chunks=4096] [threads=1,2,4] [seed=3000301] [repeats=3]
+public class WorldGenBenchmark {
+    
+    public static void main(String[] args) {
+        int chunkCount = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int[] threadCounts = args.length > 1 ? Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray()
+                                             : new int[] {1, 2, 4};
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 3000301L;
+        int repeats = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        
+        // A square block of chunks centred on the origin, so negative coordinates are exercised too
+        int side = (int) Math.ceil(Math.sqrt(chunkCount));
+        int[] xs = new int[side * side], ys = new int[side * side];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i % side - side / 2;
+            ys[i] = i / side - side / 2;
+        }
+        
+        WorldGenerator generator = new WorldGenerator(seed);
+        long reference = 0;
+        boolean deterministic = true;
+        
+        for (int threads : threadCounts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            generator.generateAll(xs, ys, pool); // Warm up
+            
+            long best = Long.MAX_VALUE;
+            long checksum = 0;
+            int spawns = 0;
+            for (int r = 0; r < repeats; r++) {
+                long start = System.nanoTime();
+                Chunk[] chunks = generator.generateAll(xs, ys, pool);
+                best = Math.min(best, System.nanoTime() - start);
+                
+                checksum = 0;
+                spawns = 0;
+                for (Chunk chunk : chunks) {
+                    checksum = Noise.hash(checksum ^ chunk.checksum(), chunk.getChunkX(), chunk.getChunkY());
+                    spawns += chunk.getSpawns().size();
+                }
+            }
+            pool.shutdown();
+            
+            if (threads == threadCounts[0]) {
+                reference = checksum;
+            } else if (checksum != reference) {
+                deterministic = false;
+            }
+            
+            double seconds = best / 1e9;
+            System.out.println(String.format(Locale.ROOT,
+                "%2d threads: %d chunks in %.1f ms  %.0f chunks/s  %.1f M tiles/s  %d spawns  checksum %016x",
+                threads, xs.length, seconds * 1000, xs.length / seconds,
+                xs.length * (double) (WorldGenerator.CHUNK_SIZE * WorldGenerator.CHUNK_SIZE) / seconds / 1e6,
+                spawns, checksum));
+        }
+        
+        System.out.println(deterministic ? "Deterministic across thread counts" : "MISMATCH: output depends on thread count");
+        if (!deterministic) System.exit(1);
+    }
+}
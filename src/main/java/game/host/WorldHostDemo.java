@@ -0,0 +1,80 @@
+package game.host;
+
+import engine.core.GameState;
+import engine.core.Logger;
+import engine.graphics.RenderEngine;
+import engine.host.WorldHost;
+import engine.host.WorldInstance;
+import engine.input.InputManager;
+import game.states.BedroomDemoState;
+import game.states.WorldGameState;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Hosts many instanced worlds in one headless JVM and reports per-instance tick lag.
+// Every other world is a bedroom room with nobody in it, so it hibernates until a visit wakes it.
+// Usage: WorldHostDemo [worlds=200] [seconds=10] [threads=cpus] [tickRate=20]
+public class WorldHostDemo {
+    
+    public static void main(String[] args) throws Exception {
+        int worldCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int tickRate = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        
+        WorldHost host = new WorldHost(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < worldCount; i++) {
+            // Hosted worlds are never drawn, so their render backends never open a window
+            InputManager input = new InputManager();
+            if (i % 2 == 0) {
+                host.host("world-" + i, new WorldGameState(input, new RenderEngine(input)), tickRate);
+            } else {
+                GameState room = new BedroomDemoState(input, new RenderEngine(input));
+                WorldInstance instance = host.host("room-" + i, room, tickRate);
+                // Empty rooms hibernate after one second
+                instance.setIdleCheck(() -> true, tickRate);
+            }
+        }
+        Logger.info("Hosted {} worlds on {} threads in {} ms", worldCount, threads,
+                    (System.nanoTime() - start) / 1_000_000L);
+        
+        // Once a second, visit a few rooms; posting wakes them for another second of ticks
+        Random random = new Random(11);
+        List<WorldInstance> instances = host.getInstances();
+        for (int second = 0; second < seconds; second++) {
+            Thread.sleep(1000);
+            for (int visit = 0; visit < Math.max(1, worldCount / 20); visit++) {
+                instances.get(random.nextInt(instances.size())).post(() -> {});
+            }
+            Logger.info(String.format(Locale.ROOT, "%ds: %d running, %d hibernating, %d faulted", second + 1,
+                        host.countInStatus(WorldInstance.Status.RUNNING),
+                        host.countInStatus(WorldInstance.Status.HIBERNATING),
+                        host.countInStatus(WorldInstance.Status.FAULTED)));
+        }
+        
+        long ticks = 0, overruns = 0, skipped = 0, lagSum = 0;
+        for (WorldInstance instance : instances) {
+            ticks += instance.getTickCount();
+            overruns += instance.getOverrunCount();
+            skipped += instance.getSkippedTickCount();
+            lagSum += instance.getAverageLagMicros();
+        }
+        Logger.info(String.format(Locale.ROOT,
+            "Totals: %d ticks, %d over budget, %d skipped, %.1f us mean lag per instance, %d steals",
+            ticks, overruns, skipped, lagSum / (double) instances.size(), host.getStealCount()));
+        
+        for (WorldInstance instance : host.getMostLagging(5)) {
+            Logger.info(String.format(Locale.ROOT,
+                "%-10s %-11s %5d ticks  lag avg %5d us max %6d us  tick avg %5d us max %6d us  x%d",
+                instance.getName(), instance.getStatus(), instance.getTickCount(),
+                instance.getAverageLagMicros(), instance.getMaxLagMicros(),
+                instance.getAverageTickMicros(), instance.getMaxTickMicros(), instance.getThrottleFactor()));
+        }
+        
+        host.close();
+        Logger.shutdown();
+    }
+}
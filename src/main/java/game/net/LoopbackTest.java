@@ -0,0 +1,93 @@
+package game.net;
+
+import engine.core.Logger;
+import engine.net.NetClient;
+import engine.net.NetProtocol;
+import engine.net.Snapshot;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Runs a WorldServer and many simulated NetClients over localhost, then prints bandwidth and tick-cost metrics.
+// Usage: LoopbackTest [clients=64] [seconds=10] [tickRate=20]
+public class LoopbackTest {
+    
+    public static void main(String[] args) throws Exception {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int tickRate = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        
+        WorldServer server = new WorldServer(0, tickRate, clientCount);
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getLocalAddress().getPort());
+        Thread serverThread = new Thread(server, "world-server");
+        serverThread.start();
+        
+        List<NetClient> clients = new ArrayList<>();
+        int[] inputs = new int[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            clients.add(new NetClient(address));
+        }
+        
+        Random random = new Random(7);
+        Snapshot view = new Snapshot();
+        long viewSamples = 0;
+        long viewEntities = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        int frame = 0;
+        
+        // Drive every client at 60 Hz from one thread, the way a real client would poll once per frame
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < clientCount; i++) {
+                NetClient client = clients.get(i);
+                client.poll();
+                if (frame % 30 == i % 30) {
+                    inputs[i] = randomDirection(random);
+                }
+                client.sendInput(inputs[i]);
+                if (client.sample(view)) {
+                    viewSamples++;
+                    viewEntities += view.size();
+                }
+            }
+            frame++;
+            Thread.sleep(16);
+        }
+        
+        server.stop();
+        serverThread.join();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        
+        long received = 0, snapshots = 0, rejected = 0, mapsComplete = 0;
+        for (NetClient client : clients) {
+            received += client.getBytesReceived();
+            snapshots += client.getSnapshotsReceived();
+            rejected += client.getSnapshotsRejected();
+            if (client.isMapComplete()) mapsComplete++;
+            client.close();
+        }
+        
+        Logger.info("Server: {}", server.getStats().summary(elapsed, clientCount));
+        Logger.info(String.format(Locale.ROOT,
+            "Clients: %d connected, %d maps complete, %.1f B/s received per client, %d snapshots applied, %d rejected, %.1f entities in view on average",
+            server.getClientCount(), mapsComplete, received / elapsed / clientCount, snapshots, rejected,
+            viewSamples == 0 ? 0.0 : viewEntities / (double) viewSamples));
+        
+        server.close();
+        Logger.shutdown();
+    }
+    
+    private static int randomDirection(Random random) {
+        return switch (random.nextInt(5)) {
+            case 0 -> NetProtocol.INPUT_UP;
+            case 1 -> NetProtocol.INPUT_DOWN;
+            case 2 -> NetProtocol.INPUT_LEFT;
+            case 3 -> NetProtocol.INPUT_RIGHT;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,383 @@
+package game.net;
+
+import engine.core.Logger;
+import engine.ecs.*;
+import engine.graphics.Camera;
+import engine.graphics.RenderEngine;
+import engine.graphics.TileMap;
+import engine.input.InputManager;
+import engine.net.*;
+import game.states.WorldGameState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Runs WorldGameState headless as the authoritative simulation and replicates it to thin clients over UDP
+public class WorldServer implements Closeable, Runnable {
+    private static final float CLIENT_MOVE_SPEED = 100f; // Same speed MovementSystem gives the local player
+    private static final float INTEREST_MARGIN = 128f;
+    private static final long CLIENT_TIMEOUT_NANOS = 5_000_000_000L;
+    private static final int MAP_ROWS_PER_PACKET = 16;
+    // Datagrams stay under a typical path MTU so they are never fragmented at the IP layer
+    private static final int MAX_DATAGRAM_BYTES = 1200;
+    private static final int SNAPSHOT_HISTORY = 32;
+    // Every client gets an entity, so a flood of spoofed CONNECTs must not grow the world without bound
+    private static final int DEFAULT_MAX_CLIENTS = 256;
+    
+    private static final class ClientConnection {
+        private final SocketAddress address;
+        private final Entity entity;
+        private final Camera camera = new Camera(800, 600);
+        private final SnapshotHistory history = new SnapshotHistory(SNAPSHOT_HISTORY);
+        private int ackTick = NetProtocol.NO_TICK;
+        private int firstMissingRow = 0;
+        private long lastHeardNanos;
+        
+        private ClientConnection(SocketAddress address, Entity entity, long now) {
+            this.address = address;
+            this.entity = entity;
+            this.lastHeardNanos = now;
+            camera.setTarget(entity);
+            camera.snapToTarget();
+        }
+    }
+    
+    private final WorldGameState world;
+    private final DatagramChannel channel;
+    private final int tickRate;
+    private final int maxClients;
+    private final float tickSeconds;
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(NetProtocol.MAX_PACKET_SIZE);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(NetProtocol.MAX_PACKET_SIZE);
+    private final SnapshotCodec codec = new SnapshotCodec();
+    private final Map<SocketAddress, ClientConnection> clients = new HashMap<>();
+    private final List<ClientConnection> timedOut = new ArrayList<>();
+    private final List<Entity> interest = new ArrayList<>();
+    private float interestCenterX, interestCenterY;
+    private final Comparator<Entity> nearestFirst = Comparator.comparingDouble(this::distanceToInterestCenter);
+    private final NetStats stats = new NetStats();
+    private final Random spawnRandom = new Random(42);
+    
+    private int tick = 0;
+    private volatile boolean running = false;
+    
+    public WorldServer(int port, int tickRate) throws IOException {
+        this(port, tickRate, DEFAULT_MAX_CLIENTS);
+    }
+    
+    public WorldServer(int port, int tickRate, int maxClients) throws IOException {
+        this.tickRate = tickRate;
+        this.maxClients = maxClients;
+        this.tickSeconds = 1f / tickRate;
+        
+        // Never rendered, so this backend never opens a window
+        InputManager input = new InputManager();
+        world = new WorldGameState(input, new RenderEngine(input));
+        world.preload();
+        world.enter();
+        
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.bind(new InetSocketAddress(port));
+        Logger.info("World server listening on {} at {} Hz", channel.getLocalAddress(), tickRate);
+    }
+    
+    @Override
+    public void run() {
+        running = true;
+        long tickNanos = 1_000_000_000L / tickRate;
+        long next = System.nanoTime();
+        
+        while (running) {
+            try {
+                tick();
+            } catch (IOException e) {
+                Logger.error("World server tick failed: {}", e);
+            }
+            
+            next += tickNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } else {
+                next = System.nanoTime(); // Overloaded: drop the backlog instead of spiralling
+            }
+        }
+    }
+    
+    public void stop() {
+        running = false;
+    }
+    
+    public void tick() throws IOException {
+        long start = System.nanoTime();
+        receive(start);
+        world.update(tickSeconds);
+        long simulated = System.nanoTime();
+        
+        for (ClientConnection client : clients.values()) {
+            // One client's failure must not stop replication for everyone else
+            try {
+                client.camera.update();
+                sendMapRows(client);
+                sendSnapshot(client);
+            } catch (RuntimeException e) {
+                Logger.error("Replication to {} failed: {}", client.address, e);
+            }
+        }
+        dropTimedOutClients(start);
+        
+        stats.recordTick(simulated - start, System.nanoTime() - simulated);
+        tick++;
+    }
+    
+    private void receive(long now) throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            SocketAddress from = channel.receive(receiveBuffer);
+            if (from == null) return;
+            
+            stats.recordReceived(receiveBuffer.position());
+            receiveBuffer.flip();
+            // Anyone can send us anything; one bad datagram must not take the server thread down
+            try {
+                if (!handlePacket(from, receiveBuffer, now)) {
+                    stats.recordRejected();
+                }
+            } catch (RuntimeException e) {
+                stats.recordRejected();
+                Logger.warn("Dropped packet from {}: {}", from, e);
+            }
+        }
+    }
+    
+    // Returns false for malformed or refused packets
+    private boolean handlePacket(SocketAddress from, ByteBuffer in, long now) throws IOException {
+        if (!in.hasRemaining()) return false;
+        
+        byte type = in.get();
+        ClientConnection client = clients.get(from);
+        
+        if (type == NetProtocol.CONNECT) {
+            if (client == null) {
+                if (clients.size() >= maxClients) return false;
+                client = connect(from, now);
+            }
+            sendWelcome(client);
+        } else if (client != null) {
+            if (type == NetProtocol.INPUT) {
+                if (in.remaining() < NetProtocol.INPUT_BODY_SIZE) return false;
+                client.lastHeardNanos = now;
+                handleInput(client, in);
+            } else if (type == NetProtocol.DISCONNECT) {
+                disconnect(client);
+            } else {
+                return false;
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+    
+    private ClientConnection connect(SocketAddress address, long now) {
+        Entity entity = world.getEntityManager().create();
+        entity.addComponent(findSpawn());
+        entity.addComponent(new RenderComponent("player.png", 32, 32));
+        entity.addComponent(VelocityComponent.ZERO);
+        
+        ClientConnection client = new ClientConnection(address, entity, now);
+        clients.put(address, client);
+        world.getAISystem().getScheduler().addViewer(client.camera);
+        Logger.info("Client {} joined as entity {}", address, entity.id());
+        return client;
+    }
+    
+    private PositionComponent findSpawn() {
+        TileMap map = world.getTileMap();
+        int tileSize = map.getTileSize();
+        for (int attempt = 0; attempt < 100; attempt++) {
+            int x = 1 + spawnRandom.nextInt(map.getWidth() - 2);
+            int y = 1 + spawnRandom.nextInt(map.getHeight() - 2);
+            if (!map.isSolid(x, y)) {
+                return new PositionComponent(x * tileSize, y * tileSize);
+            }
+        }
+        return new PositionComponent(tileSize, tileSize);
+    }
+    
+    private void handleInput(ClientConnection client, ByteBuffer in) {
+        int ackTick = in.getInt();
+        int bits = in.get();
+        client.firstMissingRow = in.getShort();
+        
+        // Acks may arrive out of order; only move forward
+        if (ackTick > client.ackTick) {
+            client.ackTick = ackTick;
+        }
+        
+        float vx = 0f, vy = 0f;
+        if ((bits & NetProtocol.INPUT_UP) != 0) vy -= CLIENT_MOVE_SPEED;
+        if ((bits & NetProtocol.INPUT_DOWN) != 0) vy += CLIENT_MOVE_SPEED;
+        if ((bits & NetProtocol.INPUT_LEFT) != 0) vx -= CLIENT_MOVE_SPEED;
+        if ((bits & NetProtocol.INPUT_RIGHT) != 0) vx += CLIENT_MOVE_SPEED;
+        client.entity.addComponent(vx == 0f && vy == 0f ? VelocityComponent.ZERO : new VelocityComponent(vx, vy));
+    }
+    
+    private void sendWelcome(ClientConnection client) throws IOException {
+        TileMap map = world.getTileMap();
+        sendBuffer.clear();
+        sendBuffer.put(NetProtocol.WELCOME);
+        sendBuffer.putInt(client.entity.id());
+        sendBuffer.putShort((short) tickRate);
+        sendBuffer.putShort((short) map.getWidth());
+        sendBuffer.putShort((short) map.getHeight());
+        sendBuffer.putShort((short) map.getTileSize());
+        send(client);
+    }
+    
+    // Streams the map a few rows per tick, restarting from whatever the client reports as missing
+    private void sendMapRows(ClientConnection client) throws IOException {
+        if (client.firstMissingRow < 0) return;
+        
+        TileMap map = world.getTileMap();
+        int start = client.firstMissingRow;
+        int rowsPerPacket = Math.max(1, Math.min(MAP_ROWS_PER_PACKET, (MAX_DATAGRAM_BYTES - 5) / map.getWidth()));
+        int rows = Math.min(rowsPerPacket, map.getHeight() - start);
+        if (rows <= 0) return;
+        
+        sendBuffer.clear();
+        sendBuffer.put(NetProtocol.MAP_ROWS);
+        sendBuffer.putShort((short) start);
+        sendBuffer.putShort((short) rows);
+        for (int y = start; y < start + rows; y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                sendBuffer.put((byte) map.getTile(x, y).id());
+            }
+        }
+        send(client);
+    }
+    
+    private void sendSnapshot(ClientConnection client) throws IOException {
+        Camera camera = client.camera;
+        float minX = camera.getX() - INTEREST_MARGIN;
+        float minY = camera.getY() - INTEREST_MARGIN;
+        float maxX = camera.getX() + camera.getViewWidth() + INTEREST_MARGIN;
+        float maxY = camera.getY() + camera.getViewHeight() + INTEREST_MARGIN;
+        
+        world.getRenderIndex().query(minX, minY, maxX, maxY, interest);
+        interest.removeIf(entity -> {
+            var pos = entity.getComponent(PositionComponent.class);
+            var render = entity.getComponent(RenderComponent.class);
+            return pos == null || render == null ||
+                   pos.x() + render.width() < minX || pos.x() > maxX ||
+                   pos.y() + render.height() < minY || pos.y() > maxY;
+        });
+        
+        // Nearest first, so a view too crowded for one datagram drops its outermost entities
+        interestCenterX = camera.getX() + camera.getViewWidth() / 2f;
+        interestCenterY = camera.getY() + camera.getViewHeight() / 2f;
+        interest.sort(nearestFirst);
+        
+        // Delta against the newest snapshot the client confirmed, or send everything
+        Snapshot base = tick - client.ackTick < SNAPSHOT_HISTORY ? client.history.get(client.ackTick) : null;
+        
+        // Shrink until the encoding fits; the history keeps exactly what was sent, so later deltas stay valid
+        int limit = interest.size();
+        while (true) {
+            Snapshot snapshot = client.history.slotFor(tick);
+            for (int i = 0; i < limit; i++) {
+                Entity entity = interest.get(i);
+                var pos = entity.getComponent(PositionComponent.class);
+                var render = entity.getComponent(RenderComponent.class);
+                snapshot.add(entity.id(), NetProtocol.quantize(pos.x()), NetProtocol.quantize(pos.y()),
+                             render.width(), render.height(), world.textureOf(entity));
+            }
+            snapshot.sortById();
+            
+            sendBuffer.clear();
+            sendBuffer.put(NetProtocol.SNAPSHOT);
+            sendBuffer.putInt(tick);
+            sendBuffer.putInt(base != null ? base.getTick() : NetProtocol.NO_TICK);
+            int size;
+            try {
+                codec.encode(snapshot, base, sendBuffer);
+                size = sendBuffer.position();
+            } catch (BufferOverflowException e) {
+                size = Integer.MAX_VALUE;
+            }
+            if (size <= MAX_DATAGRAM_BYTES || limit == 0) break;
+            
+            // Scale down by the overshoot, always by at least one entity
+            limit = Math.min(limit - 1, (int) (limit * (MAX_DATAGRAM_BYTES * 0.9) / Math.min(size, sendBuffer.capacity())));
+        }
+        stats.recordSnapshot(base != null);
+        send(client);
+    }
+    
+    private double distanceToInterestCenter(Entity entity) {
+        var pos = entity.getComponent(PositionComponent.class);
+        float dx = pos.x() - interestCenterX, dy = pos.y() - interestCenterY;
+        return dx * dx + dy * dy;
+    }
+    
+    private void send(ClientConnection client) throws IOException {
+        sendBuffer.flip();
+        stats.recordSent(channel.send(sendBuffer, client.address));
+    }
+    
+    private void dropTimedOutClients(long now) {
+        for (ClientConnection client : clients.values()) {
+            if (now - client.lastHeardNanos > CLIENT_TIMEOUT_NANOS) {
+                timedOut.add(client);
+            }
+        }
+        for (ClientConnection client : timedOut) {
+            Logger.info("Client {} timed out", client.address);
+            disconnect(client);
+        }
+        timedOut.clear();
+    }
+    
+    private void disconnect(ClientConnection client) {
+        clients.remove(client.address);
+        world.getAISystem().getScheduler().removeViewer(client.camera);
+        world.getEntityManager().destroy(client.entity);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        stop();
+        channel.close();
+        world.exit();
+    }
+    
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+    
+    public int getClientCount() { return clients.size(); }
+    public NetStats getStats() { return stats; }
+    
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int tickRate = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        new WorldServer(port, tickRate).run();
+    }
+}
@@ -1,6 +1,7 @@
 package game.states;
 
 import engine.core.GameState;
+import engine.core.Logger;
 import engine.ecs.*;
 import engine.graphics.*;
 import engine.input.InputManager;
@@ -10,11 +11,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class BedroomDemoState implements GameState {
-    private final List<Entity> entities = new ArrayList<>();
+    private final EntityManager entityManager = new EntityManager();
+    private final List<Entity> entities = entityManager.getEntities();
+    private final RenderIndex renderIndex = new RenderIndex(entityManager);
+    private final List<Entity> visible = new ArrayList<>();
     private final InputManager inputManager;
     private final RenderEngine renderEngine;
     private final TileMap bedroom = new TileMap(10, 8, 32); // 10x8 bedroom
     private final Camera camera = new Camera(800, 600);
+    private final EventBus eventBus = new EventBus();
+    private final UIOverlay overlay = new UIOverlay();
     
     private MovementSystem movementSystem;
     private InteractionSystem interactionSystem;
@@ -22,43 +28,44 @@ public class BedroomDemoState implements GameState {
     
     private Entity player;
     
-    public BedroomDemoState(InputManager inputManager) {
+    public BedroomDemoState(InputManager inputManager, RenderEngine renderEngine) {
         this.inputManager = inputManager;
-        this.renderEngine = new RenderEngine(inputManager);
+        this.renderEngine = renderEngine;
     }
     
     @Override
-    public void enter() {
-        System.out.println("🏠 Entering Bedroom Demo - Welcome to your room!");
-        
-        renderEngine.setProjection(800, 600);
-        
+    public void preload() {
         // Create bedroom layout
         createBedroomLayout();
         
         // Create player (spawn on bed)
-        player = new Entity(1);
+        player = entityManager.create();
         player.addComponent(new PositionComponent(64, 192)); // Bed position (2,6 in tiles)
         player.addComponent(new RenderComponent("player_down.png", 32, 32));
         player.addComponent(new InputComponent(true));
-        entities.add(player);
         
         // Create teddy bear (interactive object)
-        Entity teddyBear = new Entity(2);
+        Entity teddyBear = entityManager.create();
         teddyBear.addComponent(new PositionComponent(128, 96)); // Position (4,3 in tiles)
         teddyBear.addComponent(new RenderComponent("teddy_bear.png", 32, 32));
         teddyBear.addComponent(new InteractionComponent("It's my favorite teddy bear!"));
-        entities.add(teddyBear);
         
         // Set camera to follow player
         camera.setTarget(player);
         
         // Initialize systems
-        movementSystem = new MovementSystem(inputManager, bedroom);
-        interactionSystem = new InteractionSystem(inputManager);
-        uiSystem = new UISystem(interactionSystem);
+        movementSystem = new MovementSystem(inputManager, bedroom, eventBus);
+        interactionSystem = new InteractionSystem(inputManager, eventBus);
+        uiSystem = new UISystem(eventBus, overlay);
+    }
+    
+    @Override
+    public void enter() {
+        Logger.info("🏠 Entering Bedroom Demo - Welcome to your room!");
+        
+        renderEngine.setProjection(800, 600);
         
-        System.out.println("🎮 Demo loaded! Use WASD to move, SPACE to interact with teddy bear!");
+        Logger.info("🎮 Demo loaded! Use WASD to move, SPACE to interact with teddy bear!");
     }
     
     private void createBedroomLayout() {
@@ -89,6 +96,13 @@ public class BedroomDemoState implements GameState {
         interactionSystem.update(entities, deltaTime);
         uiSystem.update(entities, deltaTime);
         
+        // Sync point: apply structural changes queued by systems this tick
+        entityManager.sync();
+        renderIndex.update();
+        
+        // Deliver this tick's events to subscribers
+        eventBus.dispatch();
+        
         // Update camera
         camera.update();
     }
@@ -97,15 +111,14 @@ public class BedroomDemoState implements GameState {
     public void render() {
         renderEngine.clear();
         renderEngine.renderTileMap(bedroom, camera);
-        renderEngine.render(entities, camera);
+        renderIndex.query(camera, visible);
+        renderEngine.render(visible, camera);
+        renderEngine.renderOverlay(overlay);
         renderEngine.present();
-        
-        // Still show UI in console for now
-        uiSystem.render();
     }
     
     @Override
     public void exit() {
-        System.out.println("👋 Leaving the bedroom...");
+        Logger.info("👋 Leaving the bedroom...");
     }
 }
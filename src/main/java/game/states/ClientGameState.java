@@ -0,0 +1,121 @@
+package game.states;
+
+import engine.core.GameState;
+import engine.core.Logger;
+import engine.ecs.*;
+import engine.graphics.*;
+import engine.input.InputManager;
+import engine.net.NetClient;
+import engine.net.NetProtocol;
+import engine.net.Snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Thin client: the server simulates, this state only sends input and draws interpolated snapshots
+public class ClientGameState implements GameState {
+    private final InputManager inputManager;
+    private final RenderEngine renderEngine;
+    private final InetSocketAddress server;
+    private final Camera camera = new Camera(800, 600);
+    private final Snapshot view = new Snapshot();
+    private final Map<Integer, Entity> proxies = new HashMap<>();
+    private final List<Entity> visible = new ArrayList<>();
+    
+    private NetClient client;
+    private TileMap tileMap;
+    
+    public ClientGameState(InputManager inputManager, RenderEngine renderEngine, InetSocketAddress server) {
+        this.inputManager = inputManager;
+        this.renderEngine = renderEngine;
+        this.server = server;
+    }
+    
+    @Override
+    public void enter() {
+        Logger.info("🌐 Connecting to {}", server);
+        try {
+            client = new NetClient(server);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        try {
+            client.poll();
+            client.sendInput(readInput());
+        } catch (IOException e) {
+            Logger.error("Connection error: {}", e);
+        }
+        
+        if (tileMap == null && client.isMapComplete()) {
+            tileMap = new TileMap(client.getMapWidth(), client.getMapHeight(), client.getTileSize());
+            for (int y = 0; y < tileMap.getHeight(); y++) {
+                for (int x = 0; x < tileMap.getWidth(); x++) {
+                    tileMap.setTile(x, y, Tile.byId(client.getMapTile(x, y)));
+                }
+            }
+        }
+    }
+    
+    private int readInput() {
+        int bits = 0;
+        if (inputManager.isKeyPressed(87)) bits |= NetProtocol.INPUT_UP;    // W
+        if (inputManager.isKeyPressed(83)) bits |= NetProtocol.INPUT_DOWN;  // S
+        if (inputManager.isKeyPressed(65)) bits |= NetProtocol.INPUT_LEFT;  // A
+        if (inputManager.isKeyPressed(68)) bits |= NetProtocol.INPUT_RIGHT; // D
+        if (inputManager.isKeyPressed(32)) bits |= NetProtocol.INPUT_ACTION; // SPACE
+        return bits;
+    }
+    
+    @Override
+    public void render() {
+        renderEngine.clear();
+        
+        if (client.sample(view)) {
+            syncProxies();
+            camera.update();
+            
+            if (tileMap != null) {
+                renderEngine.renderTileMap(tileMap, camera);
+            }
+            renderEngine.render(visible, camera);
+        }
+        
+        renderEngine.present();
+    }
+    
+    // Mirrors the interpolated snapshot into reusable local entities so RenderEngine can draw them unchanged
+    private void syncProxies() {
+        visible.clear();
+        for (int i = 0; i < view.size(); i++) {
+            Entity proxy = proxies.computeIfAbsent(view.id(i), Entity::new);
+            proxy.addComponent(new PositionComponent(NetProtocol.dequantize(view.x(i)), NetProtocol.dequantize(view.y(i))));
+            proxy.addComponent(new RenderComponent(view.texture(i), view.width(i), view.height(i)));
+            visible.add(proxy);
+            
+            if (proxy.id() == client.getEntityId() && camera.getX() == 0f && camera.getY() == 0f) {
+                camera.setTarget(proxy);
+                camera.snapToTarget();
+            }
+        }
+        proxies.keySet().removeIf(id -> view.indexOf(id) < 0);
+    }
+    
+    @Override
+    public void exit() {
+        Logger.info("👋 Disconnecting from {}", server);
+        try {
+            client.close();
+        } catch (IOException e) {
+            Logger.warn("Disconnect failed: {}", e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package game.states;
+
+import engine.core.GameState;
+import engine.core.Logger;
+import engine.ecs.*;
+import engine.graphics.*;
+import engine.input.InputManager;
+import game.systems.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Spawns a configurable crowd on a generated map and runs the regular game systems over it.
+// Input is scripted (the player paces left and right and presses SPACE once a second) so every system has work.
+public class StressTestState implements GameState {
+    private static final int KEY_SPACE = 32;
+    private static final int KEY_A = 65;
+    private static final int KEY_D = 68;
+    
+    // Shares are the fraction of spawned entities that get each optional component
+    public record Config(
+        int entityCount,
+        int mapWidth,
+        int mapHeight,
+        float renderShare,
+        float aiShare,
+        float animationShare,
+        float interactionShare,
+        long seed
+    ) {
+        public Config {
+            if (entityCount < 0 || mapWidth < 3 || mapHeight < 3) {
+                throw new IllegalArgumentException("Invalid stress config: " + entityCount + " entities on " + mapWidth + "x" + mapHeight);
+            }
+        }
+        
+        public static Config of(int entityCount, int mapSize) {
+            return new Config(entityCount, mapSize, mapSize, 1f, 0.5f, 0.25f, 0.05f, 1L);
+        }
+        
+        public Config withEntityCount(int count) {
+            return new Config(count, mapWidth, mapHeight, renderShare, aiShare, animationShare, interactionShare, seed);
+        }
+        
+        public Config withMapSize(int width, int height) {
+            return new Config(entityCount, width, height, renderShare, aiShare, animationShare, interactionShare, seed);
+        }
+        
+        public Config withSeed(long newSeed) {
+            return new Config(entityCount, mapWidth, mapHeight, renderShare, aiShare, animationShare, interactionShare, newSeed);
+        }
+    }
+    
+    private final Config config;
+    private final EntityManager entityManager = new EntityManager();
+    private final List<Entity> entities = entityManager.getEntities();
+    private final RenderIndex renderIndex = new RenderIndex(entityManager);
+    private final List<Entity> visible = new ArrayList<>();
+    private final InputManager inputManager;
+    private final RenderEngine renderEngine;
+    private final TileMap tileMap;
+    private final Camera camera = new Camera(800, 600);
+    private final EventBus eventBus = new EventBus();
+    
+    private AISystem aiSystem;
+    private MovementSystem movementSystem;
+    private AnimationSystem animationSystem;
+    private InteractionSystem interactionSystem;
+    
+    private float scriptTime = 0f;
+    
+    public StressTestState(InputManager inputManager, RenderEngine renderEngine, Config config) {
+        this.inputManager = inputManager;
+        this.renderEngine = renderEngine;
+        this.config = config;
+        this.tileMap = new TileMap(config.mapWidth(), config.mapHeight(), 32);
+    }
+    
+    @Override
+    public void preload() {
+        Random random = new Random(config.seed());
+        int tileSize = tileMap.getTileSize();
+        
+        // Walled border plus roughly 5% scattered obstacles
+        for (int y = 0; y < tileMap.getHeight(); y++) {
+            for (int x = 0; x < tileMap.getWidth(); x++) {
+                boolean border = x == 0 || y == 0 || x == tileMap.getWidth() - 1 || y == tileMap.getHeight() - 1;
+                if (border) {
+                    tileMap.setTile(x, y, Tile.STONE);
+                } else if (random.nextInt(20) == 0) {
+                    tileMap.setTile(x, y, random.nextBoolean() ? Tile.TREE : Tile.WATER);
+                }
+            }
+        }
+        
+        int centerX = tileMap.getWidth() / 2, centerY = tileMap.getHeight() / 2;
+        tileMap.setTile(centerX, centerY, Tile.GRASS);
+        Entity player = entityManager.create();
+        player.addComponent(new PositionComponent(centerX * tileSize, centerY * tileSize));
+        player.addComponent(new RenderComponent("player.png", 32, 32));
+        player.addComponent(new InputComponent(true));
+        camera.setTarget(player);
+        camera.snapToTarget();
+        
+        String[] walkFrames = {"npc_walk1.png", "npc_walk2.png", "npc_walk3.png"};
+        int walkClip = renderEngine.getAnimationClips().register("npc_walk", walkFrames, 0.2f, true);
+        
+        for (int i = 0; i < config.entityCount(); i++) {
+            Entity entity = entityManager.create();
+            int tileX, tileY;
+            do {
+                tileX = 1 + random.nextInt(tileMap.getWidth() - 2);
+                tileY = 1 + random.nextInt(tileMap.getHeight() - 2);
+            } while (tileMap.isSolid(tileX, tileY));
+            
+            float x = tileX * tileSize + random.nextInt(16), y = tileY * tileSize + random.nextInt(16);
+            entity.addComponent(new PositionComponent(x, y));
+            if (random.nextFloat() < config.renderShare()) {
+                entity.addComponent(new RenderComponent("npc.png", 16, 16));
+            }
+            if (random.nextFloat() < config.aiShare()) {
+                var behavior = random.nextBoolean() ? AIComponent.AIBehavior.WANDER : AIComponent.AIBehavior.IDLE;
+                entity.addComponent(new AIComponent(behavior, random.nextFloat() * 2f, x, y));
+            }
+            if (random.nextFloat() < config.animationShare()) {
+                entity.addComponent(new AnimationComponent(walkClip, random.nextFloat()));
+            }
+            if (random.nextFloat() < config.interactionShare()) {
+                entity.addComponent(new InteractionComponent("Stress NPC #" + i));
+            }
+        }
+        
+        aiSystem = new AISystem(camera);
+        movementSystem = new MovementSystem(inputManager, tileMap, eventBus);
+        animationSystem = new AnimationSystem();
+        interactionSystem = new InteractionSystem(inputManager, eventBus);
+    }
+    
+    @Override
+    public void enter() {
+        Logger.debug("Entering stress test: {} entities on {}x{}", config.entityCount(), config.mapWidth(), config.mapHeight());
+        renderEngine.setProjection(800, 600);
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        scriptInput(deltaTime);
+        
+        aiSystem.update(entities, deltaTime);
+        movementSystem.update(entities, deltaTime);
+        animationSystem.update(entities, deltaTime);
+        interactionSystem.update(entities, deltaTime);
+        
+        entityManager.sync();
+        renderIndex.update();
+        eventBus.dispatch();
+        camera.update();
+    }
+    
+    private void scriptInput(float deltaTime) {
+        scriptTime += deltaTime;
+        boolean right = (int) (scriptTime / 2f) % 2 == 0;
+        inputManager.setKeyPressed(KEY_D, right);
+        inputManager.setKeyPressed(KEY_A, !right);
+        // Hold SPACE for a tenth of every second
+        inputManager.setKeyPressed(KEY_SPACE, scriptTime % 1f < 0.1f);
+    }
+    
+    @Override
+    public void render() {
+        renderEngine.clear();
+        renderEngine.renderTileMap(tileMap, camera);
+        renderIndex.query(camera, visible);
+        renderEngine.render(visible, camera, animationSystem.getTime());
+        renderEngine.present();
+    }
+    
+    @Override
+    public void exit() {
+        Logger.debug("Leaving stress test");
+    }
+    
+    public Config getConfig() {
+        return config;
+    }
+    
+    public int getEntityCount() {
+        return entities.size();
+    }
+    
+    public MovementSystem getMovementSystem() {
+        return movementSystem;
+    }
+}
@@ -1,34 +1,38 @@
 package game.states;
 
 import engine.core.GameState;
+import engine.core.Logger;
 import engine.ecs.Entity;
+import engine.ecs.EntityManager;
 import engine.ecs.PositionComponent;
 import engine.ecs.RenderComponent;
 import engine.graphics.RenderEngine;
 import engine.graphics.Camera;
 import engine.input.InputManager;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class TestGameState implements GameState {
-    private final List<Entity> entities = new ArrayList<>();
+    private final EntityManager entityManager = new EntityManager();
+    private final List<Entity> entities = entityManager.getEntities();
     private final RenderEngine renderEngine;
     private final Camera camera = new Camera(800, 600);
     
-    public TestGameState(InputManager inputManager) {
-        this.renderEngine = new RenderEngine(inputManager);
+    public TestGameState(InputManager inputManager, RenderEngine renderEngine) {
+        this.renderEngine = renderEngine;
     }
     
     @Override
-    public void enter() {
-        System.out.println("Entering test game state");
-        
+    public void preload() {
         // Create a test entity
-        Entity player = new Entity(1);
+        Entity player = entityManager.create();
         player.addComponent(new PositionComponent(100, 100));
         player.addComponent(new RenderComponent("player.png", 32, 32));
-        entities.add(player);
+    }
+    
+    @Override
+    public void enter() {
+        Logger.info("Entering test game state");
         
         renderEngine.setProjection(800, 600);
     }
@@ -47,11 +51,13 @@ public class TestGameState implements GameState {
     
     @Override
     public void render() {
+        renderEngine.clear();
         renderEngine.render(entities, camera);
+        renderEngine.present();
     }
     
     @Override
     public void exit() {
-        System.out.println("Exiting test game state");
+        Logger.info("Exiting test game state");
     }
 }
@@ -1,37 +1,59 @@
 package game.states;
 
 import engine.core.GameState;
+import engine.core.Logger;
 import engine.ecs.*;
 import engine.graphics.*;
 import engine.input.InputManager;
+import engine.world.Chunk;
+import engine.world.WorldGenerator;
 import game.systems.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class WorldGameState implements GameState {
-    private final List<Entity> entities = new ArrayList<>();
+    public static final long DEFAULT_SEED = 0x2D5EEDL;
+    // The opening area around the player's start is kept as open meadow
+    private static final int MEADOW_X = 12, MEADOW_Y = 9, MEADOW_RADIUS = 7;
+    // Dusk: terrain in view stays readable, lanterns and torches still matter
+    private static final int AMBIENT_LIGHT = 6;
+    private static final int VIEW_RADIUS = 12;
+    
+    private final EntityManager entityManager = new EntityManager();
+    private final List<Entity> entities = entityManager.getEntities();
+    private final RenderIndex renderIndex = new RenderIndex(entityManager);
+    private final List<Entity> visible = new ArrayList<>();
     private final InputManager inputManager;
     private final RenderEngine renderEngine;
     private final TileMap tileMap = new TileMap(50, 50, 32);
     private final Camera camera = new Camera(800, 600);
+    private final EventBus eventBus = new EventBus();
+    private final long seed;
     
     private MovementSystem movementSystem;
     private AnimationSystem animationSystem;
     private AISystem aiSystem;
+    private Lighting lighting;
     
     private Entity player;
     
-    public WorldGameState(InputManager inputManager) {
+    public WorldGameState(InputManager inputManager, RenderEngine renderEngine) {
+        this(inputManager, renderEngine, DEFAULT_SEED);
+    }
+    
+    public WorldGameState(InputManager inputManager, RenderEngine renderEngine, long seed) {
         this.inputManager = inputManager;
-        this.renderEngine = new RenderEngine(inputManager);
+        this.renderEngine = renderEngine;
+        this.seed = seed;
     }
     
     @Override
-    public void enter() {
-        System.out.println("🌍 Entering world - The adventure begins!");
-        
-        renderEngine.setProjection(800, 600);
+    public void preload() {
+        // Generate terrain from the seed, chunks in parallel
+        Chunk[] chunks = new WorldGenerator(seed).fill(tileMap, 0, 0, ForkJoinPool.commonPool());
+        clearMeadow();
         
         // Create some obstacles
         tileMap.setTile(10, 10, Tile.STONE);
@@ -39,60 +61,148 @@ public class WorldGameState implements GameState {
         tileMap.setTile(20, 12, Tile.WATER);
         
         // Create player
-        player = new Entity(1);
+        player = entityManager.create();
         player.addComponent(new PositionComponent(400, 300));
         player.addComponent(new RenderComponent("player.png", 32, 32));
         player.addComponent(new InputComponent(true));
+        player.addComponent(new LightComponent(8));
         
         String[] walkFrames = {"player_walk1.png", "player_walk2.png", "player_walk3.png"};
-        player.addComponent(new AnimationComponent(walkFrames, 0.2f, true));
+        int walkClip = renderEngine.getAnimationClips().register("player_walk", walkFrames, 0.2f, true);
+        player.addComponent(new AnimationComponent(walkClip));
         
-        entities.add(player);
         camera.setTarget(player);
         
         // Create NPCs
-        Entity npc1 = new Entity(2);
+        Entity npc1 = entityManager.create();
         npc1.addComponent(new PositionComponent(500, 400));
         npc1.addComponent(new RenderComponent("npc.png", 32, 32));
         npc1.addComponent(new AIComponent(AIComponent.AIBehavior.WANDER));
-        entities.add(npc1);
         
-        Entity npc2 = new Entity(3);
+        Entity npc2 = entityManager.create();
         npc2.addComponent(new PositionComponent(300, 200));
         npc2.addComponent(new RenderComponent("guard.png", 32, 32));
         npc2.addComponent(new AIComponent(AIComponent.AIBehavior.IDLE));
-        entities.add(npc2);
+        
+        // Tags along whenever it can see the player; walls block its view
+        Entity dog = entityManager.create();
+        dog.addComponent(new PositionComponent(600, 300));
+        dog.addComponent(new RenderComponent("dog.png", 24, 24));
+        dog.addComponent(new AIComponent(AIComponent.AIBehavior.FOLLOW_PLAYER, 0f, 600f, 300f));
+        
+        // Torches at the meadow's north edge and by the stone landmark
+        int tileSize = tileMap.getTileSize();
+        Entity torch1 = entityManager.create();
+        torch1.addComponent(new PositionComponent((MEADOW_X + 0.5f) * tileSize, (MEADOW_Y - MEADOW_RADIUS + 0.5f) * tileSize));
+        torch1.addComponent(new LightComponent(12));
+        
+        Entity torch2 = entityManager.create();
+        torch2.addComponent(new PositionComponent(11.5f * tileSize, 10.5f * tileSize));
+        torch2.addComponent(new LightComponent(10));
+        
+        // NPCs from the generator's spawn pass
+        for (Chunk chunk : chunks) {
+            for (Chunk.Spawn spawn : chunk.getSpawns()) {
+                if (!tileMap.isValidPosition(spawn.tileX(), spawn.tileY()) || inMeadow(spawn.tileX(), spawn.tileY())) continue;
+                
+                Entity npc = entityManager.create();
+                float x = spawn.tileX() * tileSize, y = spawn.tileY() * tileSize;
+                npc.addComponent(new PositionComponent(x, y));
+                npc.addComponent(new RenderComponent("npc.png", 32, 32));
+                // Target the spawn point so wanderers stay put until their first direction change
+                npc.addComponent(new AIComponent(spawn.behavior(), 0f, x, y));
+            }
+        }
         
         // Initialize systems
-        movementSystem = new MovementSystem(inputManager, tileMap);
+        movementSystem = new MovementSystem(inputManager, tileMap, eventBus);
         animationSystem = new AnimationSystem();
-        aiSystem = new AISystem();
+        aiSystem = new AISystem(camera, tileMap);
         
-        System.out.println("🎮 World loaded! Use WASD to move your character!");
+        lighting = new Lighting(entityManager, tileMap);
+        lighting.setAmbient(AMBIENT_LIGHT);
+        lighting.setViewer(player, VIEW_RADIUS);
+        lighting.update();
+    }
+    
+    private void clearMeadow() {
+        for (int y = MEADOW_Y - MEADOW_RADIUS; y <= MEADOW_Y + MEADOW_RADIUS; y++) {
+            for (int x = MEADOW_X - MEADOW_RADIUS; x <= MEADOW_X + MEADOW_RADIUS; x++) {
+                if (inMeadow(x, y)) tileMap.setTile(x, y, Tile.GRASS);
+            }
+        }
+    }
+    
+    private boolean inMeadow(int x, int y) {
+        int dx = x - MEADOW_X, dy = y - MEADOW_Y;
+        return dx * dx + dy * dy <= MEADOW_RADIUS * MEADOW_RADIUS;
+    }
+    
+    @Override
+    public void enter() {
+        Logger.info("🌍 Entering world - The adventure begins!");
+        
+        renderEngine.setProjection(800, 600);
+        
+        Logger.info("🎮 World loaded! Use WASD to move your character!");
     }
     
     @Override
     public void update(float deltaTime) {
         // Update systems
-        movementSystem.update(entities, deltaTime);
         aiSystem.update(entities, deltaTime);
+        movementSystem.update(entities, deltaTime);
         animationSystem.update(entities, deltaTime);
         
+        // Sync point: apply structural changes queued by systems this tick
+        entityManager.sync();
+        renderIndex.update();
+        lighting.update();
+        
+        // Deliver this tick's events to subscribers
+        eventBus.dispatch();
+        
         // Update camera
         camera.update();
     }
     
     @Override
     public void render() {
-        System.out.print("🗺️  ");
-        renderEngine.renderTileMap(tileMap, camera);
-        System.out.print("| ");
-        renderEngine.render(entities, camera);
-        System.out.println();
+        renderEngine.clear();
+        renderEngine.renderTileMap(tileMap, camera, lighting);
+        renderIndex.query(camera, visible);
+        // Fog of war: only what the player can see right now is drawn
+        visible.removeIf(entity -> entity != player && !lighting.isVisible(entity));
+        renderEngine.render(visible, camera, animationSystem.getTime());
+        renderEngine.present();
+    }
+    
+    public EntityManager getEntityManager() {
+        return entityManager;
+    }
+    
+    public RenderIndex getRenderIndex() {
+        return renderIndex;
+    }
+    
+    public TileMap getTileMap() {
+        return tileMap;
+    }
+    
+    public Lighting getLighting() {
+        return lighting;
+    }
+    
+    public AISystem getAISystem() {
+        return aiSystem;
+    }
+    
+    public String textureOf(Entity entity) {
+        return renderEngine.textureOf(entity, animationSystem.getTime());
     }
     
     @Override
     public void exit() {
-        System.out.println("👋 Leaving the world...");
+        Logger.info("👋 Leaving the world...");
     }
 }
@@ -0,0 +1,166 @@
+package game.systems;
+
+import engine.ecs.*;
+import engine.graphics.Camera;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AIScheduler {
+    // Distance in pixels outside the viewport that still counts as band i (band 0 = on screen)
+    private static final float[] DEFAULT_BAND_MARGINS = {0f, 256f, 1024f};
+    // Minimum accumulated seconds before an entity in band i is updated again
+    private static final float[] DEFAULT_BAND_INTERVALS = {0f, 0.1f, 0.5f, 2.0f};
+    private static final long DEFAULT_BUDGET_MICROS = 2000;
+    
+    public interface Updater {
+        void update(Entity entity, float deltaTime);
+    }
+    
+    private static final class Slot {
+        int entityId;
+        float pending;
+        int band;
+    }
+    
+    private final float[] bandMargins;
+    private final float[] bandIntervals;
+    private final List<Camera> viewers = new ArrayList<>();
+    private Slot[] slots = new Slot[256];
+    private final List<Entity> eligible = new ArrayList<>();
+    private final int[] bandCounts;
+    private long budgetNanos;
+    
+    private int cursor = 0;
+    private int fullUpdates = 0;
+    private int slicedUpdates = 0;
+    private int deferred = 0;
+    private long lastSliceNanos = 0;
+    
+    public AIScheduler() {
+        this(DEFAULT_BAND_MARGINS, DEFAULT_BAND_INTERVALS, DEFAULT_BUDGET_MICROS);
+    }
+    
+    public AIScheduler(float[] bandMargins, float[] bandIntervals, long budgetMicros) {
+        if (bandIntervals.length != bandMargins.length + 1) {
+            throw new IllegalArgumentException("Need one interval per band margin plus one for the outermost band");
+        }
+        this.bandMargins = bandMargins.clone();
+        this.bandIntervals = bandIntervals.clone();
+        this.bandCounts = new int[bandIntervals.length];
+        setBudgetMicros(budgetMicros);
+    }
+    
+    public void addViewer(Camera camera) {
+        viewers.add(camera);
+    }
+    
+    public void removeViewer(Camera camera) {
+        viewers.remove(camera);
+    }
+    
+    public void setBudgetMicros(long budgetMicros) {
+        this.budgetNanos = budgetMicros * 1000L;
+    }
+    
+    public void update(List<Entity> entities, float deltaTime, Updater updater) {
+        fullUpdates = 0;
+        slicedUpdates = 0;
+        eligible.clear();
+        Arrays.fill(bandCounts, 0);
+        
+        for (Entity entity : entities) {
+            if (!entity.hasComponent(AIComponent.class) || !entity.hasComponent(PositionComponent.class)) {
+                continue;
+            }
+            
+            Slot slot = slotFor(entity);
+            slot.pending += deltaTime;
+            slot.band = classify(entity);
+            bandCounts[slot.band]++;
+            
+            if (slot.band == 0) {
+                // On screen: always a full-rate update
+                updater.update(entity, slot.pending);
+                slot.pending = 0f;
+                fullUpdates++;
+            } else if (slot.pending >= bandIntervals[slot.band]) {
+                eligible.add(entity);
+            }
+        }
+        
+        // Off-screen work is time-sliced round-robin so every entity eventually catches up
+        int count = eligible.size();
+        int start = count == 0 ? 0 : cursor % count;
+        long sliceStart = System.nanoTime();
+        long deadline = sliceStart + budgetNanos;
+        
+        for (int i = 0; i < count; i++) {
+            if ((i & 7) == 0 && System.nanoTime() >= deadline) break;
+            
+            Entity entity = eligible.get((start + i) % count);
+            Slot slot = slots[EntityManager.indexOf(entity.id())];
+            updater.update(entity, slot.pending);
+            slot.pending = 0f;
+            slicedUpdates++;
+        }
+        
+        lastSliceNanos = System.nanoTime() - sliceStart;
+        cursor = start + slicedUpdates;
+        deferred = count - slicedUpdates;
+        eligible.clear();
+    }
+    
+    // Slots are indexed like EntityManager slots; a recycled index carries a new generation and starts fresh
+    private Slot slotFor(Entity entity) {
+        int index = EntityManager.indexOf(entity.id());
+        if (index >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(index + 1, slots.length * 2));
+        }
+        
+        Slot slot = slots[index];
+        if (slot == null) {
+            slot = new Slot();
+            slots[index] = slot;
+        }
+        if (slot.entityId != entity.id()) {
+            slot.entityId = entity.id();
+            slot.pending = 0f;
+        }
+        return slot;
+    }
+    
+    private int classify(Entity entity) {
+        if (viewers.isEmpty()) return 0;
+        
+        var pos = entity.getComponent(PositionComponent.class);
+        float width = 0f, height = 0f;
+        if (entity.hasComponent(RenderComponent.class)) {
+            var render = entity.getComponent(RenderComponent.class);
+            width = render.width();
+            height = render.height();
+        }
+        
+        float nearest = Float.MAX_VALUE;
+        for (Camera camera : viewers) {
+            float dx = Math.max(0f, Math.max(camera.getX() - (pos.x() + width),
+                                             pos.x() - (camera.getX() + camera.getViewWidth())));
+            float dy = Math.max(0f, Math.max(camera.getY() - (pos.y() + height),
+                                             pos.y() - (camera.getY() + camera.getViewHeight())));
+            nearest = Math.min(nearest, Math.max(dx, dy));
+        }
+        
+        for (int band = 0; band < bandMargins.length; band++) {
+            if (nearest <= bandMargins[band]) return band;
+        }
+        return bandMargins.length;
+    }
+    
+    public int getBandCount() { return bandCounts.length; }
+    public int getEntitiesInBand(int band) { return bandCounts[band]; }
+    public int getFullUpdateCount() { return fullUpdates; }
+    public int getSlicedUpdateCount() { return slicedUpdates; }
+    public int getDeferredCount() { return deferred; }
+    public long getLastSliceMicros() { return lastSliceNanos / 1000L; }
+}
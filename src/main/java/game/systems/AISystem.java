@@ -1,58 +1,168 @@
 package game.systems;
 
 import engine.ecs.*;
+import engine.graphics.Camera;
+import engine.graphics.TileMap;
 
 import java.util.List;
 import java.util.Random;
 
 public class AISystem implements GameSystem {
+    private static final float SIGHT_RANGE = 256f;
+    private static final float FOLLOW_DISTANCE = 40f;
+    private static final float FOLLOW_SPEED = 60f;
+    private static final float WANDER_SPEED = 50f;
+    // How long a follower keeps heading for the last place it saw the player
+    private static final float MEMORY_SECONDS = 5f;
+    
     private final Random random = new Random();
+    private final AIScheduler scheduler;
+    private TileMap tileMap;
+    private Entity player = null;
+    
+    public AISystem() {
+        this(new AIScheduler());
+    }
+    
+    public AISystem(Camera camera) {
+        this(new AIScheduler());
+        scheduler.addViewer(camera);
+    }
+    
+    // Line-of-sight checks for FOLLOW_PLAYER go through the map's solidity bitmap
+    public AISystem(Camera camera, TileMap tileMap) {
+        this(camera);
+        this.tileMap = tileMap;
+    }
+    
+    public AISystem(AIScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
     
     @Override
     public void update(List<Entity> entities, float deltaTime) {
-        for (Entity entity : entities) {
-            if (entity.hasComponent(AIComponent.class) && 
-                entity.hasComponent(PositionComponent.class)) {
-                
-                var ai = entity.getComponent(AIComponent.class);
-                var pos = entity.getComponent(PositionComponent.class);
-                
-                switch (ai.behavior()) {
-                    case WANDER -> updateWander(entity, ai, pos, deltaTime);
-                    case IDLE -> updateIdle(entity, ai, deltaTime);
-                }
-            }
+        if (player == null || !isControllable(player)) {
+            player = findPlayer(entities);
+        }
+        scheduler.update(entities, deltaTime, this::updateEntity);
+    }
+    
+    private void updateEntity(Entity entity, float deltaTime) {
+        var ai = entity.getComponent(AIComponent.class);
+        var pos = entity.getComponent(PositionComponent.class);
+        
+        switch (ai.behavior()) {
+            case WANDER -> updateWander(entity, ai, pos, deltaTime);
+            case IDLE -> updateIdle(entity, ai, deltaTime);
+            case FOLLOW_PLAYER -> updateFollow(entity, ai, pos, deltaTime);
         }
     }
     
     private void updateWander(Entity entity, AIComponent ai, PositionComponent pos, float deltaTime) {
         float newTimer = ai.timer() + deltaTime;
+        float targetX = ai.targetX(), targetY = ai.targetY();
         
         if (newTimer >= 2.0f) { // Change direction every 2 seconds
-            float newTargetX = pos.x() + (random.nextFloat() - 0.5f) * 100;
-            float newTargetY = pos.y() + (random.nextFloat() - 0.5f) * 100;
-            
-            entity.addComponent(new AIComponent(ai.behavior(), 0f, newTargetX, newTargetY));
-        } else {
-            // Move towards target
-            float dx = ai.targetX() - pos.x();
-            float dy = ai.targetY() - pos.y();
-            float distance = (float) Math.sqrt(dx * dx + dy * dy);
-            
-            if (distance > 5f) {
-                float speed = 50f * deltaTime;
-                float newX = pos.x() + (dx / distance) * speed;
-                float newY = pos.y() + (dy / distance) * speed;
-                
-                entity.addComponent(new PositionComponent(newX, newY));
-            }
-            
-            entity.addComponent(new AIComponent(ai.behavior(), newTimer, ai.targetX(), ai.targetY()));
+            targetX = pos.x() + (random.nextFloat() - 0.5f) * 100;
+            targetY = pos.y() + (random.nextFloat() - 0.5f) * 100;
+            newTimer = 0f;
         }
+        
+        // Steer on every update, retargeting ones included: far-band NPCs are updated every 2 s,
+        // so they retarget on every update and would otherwise keep a stale velocity forever
+        float dx = targetX - pos.x();
+        float dy = targetY - pos.y();
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        
+        // MovementSystem integrates the velocity so AI motion gets the same collision resolution as the player
+        steer(entity, dx, dy, distance, 5f, WANDER_SPEED, deltaTime);
+        
+        entity.addComponent(new AIComponent(ai.behavior(), newTimer, targetX, targetY));
     }
     
     private void updateIdle(Entity entity, AIComponent ai, float deltaTime) {
         // Just update timer for idle NPCs
         entity.addComponent(new AIComponent(ai.behavior(), ai.timer() + deltaTime, ai.targetX(), ai.targetY()));
     }
+    
+    // Chases the player while it is in sight, then searches where it was last seen until the memory fades
+    private void updateFollow(Entity entity, AIComponent ai, PositionComponent pos, float deltaTime) {
+        float timer = ai.timer() + deltaTime;
+        float targetX = ai.targetX(), targetY = ai.targetY();
+        float stopDistance = 5f;
+        
+        if (player != null && canSee(entity, pos, player)) {
+            var playerPos = player.getComponent(PositionComponent.class);
+            targetX = playerPos.x();
+            targetY = playerPos.y();
+            timer = 0f;
+            stopDistance = FOLLOW_DISTANCE;
+        }
+        
+        float dx = targetX - pos.x();
+        float dy = targetY - pos.y();
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        if (timer < MEMORY_SECONDS) {
+            steer(entity, dx, dy, distance, stopDistance, FOLLOW_SPEED, deltaTime);
+        } else if (entity.hasComponent(VelocityComponent.class)) {
+            entity.addComponent(VelocityComponent.ZERO);
+        }
+        
+        entity.addComponent(new AIComponent(ai.behavior(), timer, targetX, targetY));
+    }
+    
+    // The velocity stands until this entity's next AI update, which the scheduler defers by about the
+    // interval just elapsed, so the speed is capped to cover at most the remaining distance in that time
+    private static void steer(Entity entity, float dx, float dy, float distance, float stopDistance,
+                              float maxSpeed, float interval) {
+        if (distance <= stopDistance) {
+            if (entity.hasComponent(VelocityComponent.class)) {
+                entity.addComponent(VelocityComponent.ZERO);
+            }
+            return;
+        }
+        
+        float speed = Math.min(maxSpeed, (distance - stopDistance) / Math.max(interval, 1e-3f));
+        entity.addComponent(new VelocityComponent((dx / distance) * speed, (dy / distance) * speed));
+    }
+    
+    private boolean canSee(Entity entity, PositionComponent pos, Entity target) {
+        var targetPos = target.getComponent(PositionComponent.class);
+        if (targetPos == null) return false;
+        
+        float fromX = pos.x() + halfWidth(entity), fromY = pos.y() + halfHeight(entity);
+        float toX = targetPos.x() + halfWidth(target), toY = targetPos.y() + halfHeight(target);
+        float dx = toX - fromX, dy = toY - fromY;
+        if (dx * dx + dy * dy > SIGHT_RANGE * SIGHT_RANGE) return false;
+        
+        return tileMap == null || tileMap.hasLineOfSight(fromX, fromY, toX, toY);
+    }
+    
+    private static float halfWidth(Entity entity) {
+        var render = entity.getComponent(RenderComponent.class);
+        return render != null ? render.width() / 2f : 0f;
+    }
+    
+    private static float halfHeight(Entity entity) {
+        var render = entity.getComponent(RenderComponent.class);
+        return render != null ? render.height() / 2f : 0f;
+    }
+    
+    private static boolean isControllable(Entity entity) {
+        return entity.hasComponent(InputComponent.class) &&
+               entity.getComponent(InputComponent.class).controllable();
+    }
+    
+    private static Entity findPlayer(List<Entity> entities) {
+        for (Entity entity : entities) {
+            if (isControllable(entity)) {
+                return entity;
+            }
+        }
+        return null;
+    }
+    
+    public AIScheduler getScheduler() {
+        return scheduler;
+    }
 }
@@ -1,47 +1,61 @@
 package game.systems;
 
+import engine.core.Logger;
 import engine.ecs.*;
 import engine.input.InputManager;
 
 import java.util.List;
 
 public class InteractionSystem implements GameSystem {
+    private static final float INTERACT_RANGE = 48f; // Within 1.5 tiles (32px * 1.5), Manhattan
+    
     private final InputManager inputManager;
-    private String currentMessage = null;
-    private float messageTimer = 0f;
-    private final float MESSAGE_DURATION = 3f; // 3 seconds
+    private final EventBus eventBus;
+    private Entity player = null;
+    private Entity nearbyInteractable = null;
+    private boolean nearbyDirty = true;
     
-    public InteractionSystem(InputManager inputManager) {
+    public InteractionSystem(InputManager inputManager, EventBus eventBus) {
         this.inputManager = inputManager;
+        this.eventBus = eventBus;
+        
+        // Tile crossings are a hint to drop the cached candidate; it is still re-checked on every press
+        eventBus.subscribe(event -> nearbyDirty = true, GameEvent.Type.TILE_CROSSED);
     }
     
     @Override
     public void update(List<Entity> entities, float deltaTime) {
-        // Update message timer
-        if (currentMessage != null) {
-            messageTimer -= deltaTime;
-            if (messageTimer <= 0) {
-                currentMessage = null;
-            }
-        }
-        
         // Check for SPACE key interaction (32 = SPACE)
         if (inputManager.isKeyPressed(32)) {
-            Entity player = findPlayer(entities);
+            if (player == null || !isControllable(player)) {
+                player = findPlayer(entities);
+                nearbyDirty = true;
+            }
             if (player != null) {
-                Entity interactable = findNearbyInteractable(entities, player);
-                if (interactable != null) {
-                    var interaction = interactable.getComponent(InteractionComponent.class);
-                    showMessage(interaction.message());
+                // Range can change within a tile and the crossing event lands a tick late, and a destroyed
+                // target's handle has no components left, so the cached candidate must still qualify
+                if (nearbyDirty || !inRange(player, nearbyInteractable)) {
+                    nearbyInteractable = findNearbyInteractable(entities, player);
+                    nearbyDirty = false;
+                }
+                if (nearbyInteractable != null) {
+                    var interaction = nearbyInteractable.getComponent(InteractionComponent.class);
+                    if (interaction != null && interaction.canInteract()) {
+                        showMessage(nearbyInteractable, interaction.message());
+                    }
                 }
             }
         }
     }
     
+    private boolean isControllable(Entity entity) {
+        return entity.hasComponent(InputComponent.class) && 
+               entity.getComponent(InputComponent.class).controllable();
+    }
+    
     private Entity findPlayer(List<Entity> entities) {
         for (Entity entity : entities) {
-            if (entity.hasComponent(InputComponent.class) && 
-                entity.getComponent(InputComponent.class).controllable()) {
+            if (isControllable(entity)) {
                 return entity;
             }
         }
@@ -49,35 +63,28 @@ public class InteractionSystem implements GameSystem {
     }
     
     private Entity findNearbyInteractable(List<Entity> entities, Entity player) {
-        var playerPos = player.getComponent(PositionComponent.class);
-        
         for (Entity entity : entities) {
-            if (entity.hasComponent(InteractionComponent.class) && 
-                entity.hasComponent(PositionComponent.class)) {
-                
-                var entityPos = entity.getComponent(PositionComponent.class);
-                float distance = Math.abs(playerPos.x() - entityPos.x()) + 
-                               Math.abs(playerPos.y() - entityPos.y());
-                
-                if (distance <= 48f) { // Within 1.5 tiles (32px * 1.5)
-                    return entity;
-                }
+            if (inRange(player, entity)) {
+                return entity;
             }
         }
         return null;
     }
     
-    private void showMessage(String message) {
-        currentMessage = message;
-        messageTimer = MESSAGE_DURATION;
-        System.out.println("💬 " + message); // Console output for now
-    }
-    
-    public String getCurrentMessage() {
-        return currentMessage;
+    private static boolean inRange(Entity player, Entity entity) {
+        if (entity == null || !entity.hasComponent(InteractionComponent.class)) return false;
+        
+        var playerPos = player.getComponent(PositionComponent.class);
+        var entityPos = entity.getComponent(PositionComponent.class);
+        if (playerPos == null || entityPos == null) return false;
+        
+        float distance = Math.abs(playerPos.x() - entityPos.x()) + 
+                       Math.abs(playerPos.y() - entityPos.y());
+        return distance <= INTERACT_RANGE;
     }
     
-    public boolean hasMessage() {
-        return currentMessage != null;
+    private void showMessage(Entity target, String message) {
+        eventBus.publishInteraction(player.id(), target.id(), message);
+        Logger.info("💬 {}", message);
     }
 }
@@ -3,49 +3,159 @@ package game.systems;
 import engine.ecs.*;
 import engine.input.InputManager;
 import engine.graphics.TileMap;
+import engine.physics.SweepAndPrune;
+import engine.physics.TileCollider;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class MovementSystem implements GameSystem {
     private final InputManager inputManager;
     private final TileMap tileMap;
+    private final TileCollider tileCollider;
+    private final EventBus eventBus;
+    private final SweepAndPrune broadphase = new SweepAndPrune();
+    private final List<Entity> bodies = new ArrayList<>();
     private final float moveSpeed = 100f; // pixels per second
     
     public MovementSystem(InputManager inputManager, TileMap tileMap) {
+        this(inputManager, tileMap, null);
+    }
+    
+    public MovementSystem(InputManager inputManager, TileMap tileMap, EventBus eventBus) {
         this.inputManager = inputManager;
         this.tileMap = tileMap;
+        this.tileCollider = new TileCollider(tileMap);
+        this.eventBus = eventBus;
     }
     
     @Override
     public void update(List<Entity> entities, float deltaTime) {
+        bodies.clear();
+        broadphase.clear();
+        
         for (Entity entity : entities) {
-            if (entity.hasComponent(PositionComponent.class) && 
-                entity.hasComponent(InputComponent.class)) {
-                
-                var input = entity.getComponent(InputComponent.class);
-                if (!input.controllable()) continue;
-                
+            if (!entity.hasComponent(PositionComponent.class)) continue;
+            
+            if (entity.hasComponent(InputComponent.class) &&
+                entity.getComponent(InputComponent.class).controllable()) {
+                applyInput(entity);
+            }
+            
+            if (entity.hasComponent(VelocityComponent.class)) {
+                var velocity = entity.getComponent(VelocityComponent.class);
+                if (velocity.isMoving()) {
+                    move(entity, velocity.vx() * deltaTime, velocity.vy() * deltaTime);
+                }
+            }
+            
+            if (entity.hasComponent(RenderComponent.class)) {
                 var pos = entity.getComponent(PositionComponent.class);
-                float newX = pos.x();
-                float newY = pos.y();
-                
-                // 4-directional movement (WASD keys: 87=W, 65=A, 83=S, 68=D)
-                if (inputManager.isKeyPressed(87)) newY -= moveSpeed * deltaTime; // W
-                if (inputManager.isKeyPressed(83)) newY += moveSpeed * deltaTime; // S
-                if (inputManager.isKeyPressed(65)) newX -= moveSpeed * deltaTime; // A
-                if (inputManager.isKeyPressed(68)) newX += moveSpeed * deltaTime; // D
-                
-                // Check collision
-                if (canMoveTo(newX, newY)) {
-                    entity.addComponent(new PositionComponent(newX, newY));
+                var render = entity.getComponent(RenderComponent.class);
+                broadphase.add(pos.x(), pos.y(), render.width(), render.height());
+                bodies.add(entity);
+            }
+        }
+        
+        resolveEntityCollisions();
+    }
+    
+    private void applyInput(Entity entity) {
+        float vx = 0f;
+        float vy = 0f;
+        
+        // 4-directional movement (WASD keys: 87=W, 65=A, 83=S, 68=D)
+        if (inputManager.isKeyPressed(87)) vy -= moveSpeed; // W
+        if (inputManager.isKeyPressed(83)) vy += moveSpeed; // S
+        if (inputManager.isKeyPressed(65)) vx -= moveSpeed; // A
+        if (inputManager.isKeyPressed(68)) vx += moveSpeed; // D
+        
+        var current = entity.getComponent(VelocityComponent.class);
+        if (current == null || current.vx() != vx || current.vy() != vy) {
+            entity.addComponent(vx == 0f && vy == 0f ? VelocityComponent.ZERO : new VelocityComponent(vx, vy));
+        }
+    }
+    
+    // Moves an entity by the given offset, sliding along solid tiles
+    public void move(Entity entity, float dx, float dy) {
+        var pos = entity.getComponent(PositionComponent.class);
+        float width = 1f, height = 1f;
+        if (entity.hasComponent(RenderComponent.class)) {
+            var render = entity.getComponent(RenderComponent.class);
+            width = Math.max(1f, render.width());
+            height = Math.max(1f, render.height());
+        }
+        
+        float allowedX = tileCollider.sweepX(pos.x(), pos.y(), width, height, dx);
+        float newX = pos.x() + allowedX;
+        float allowedY = tileCollider.sweepY(newX, pos.y(), width, height, dy);
+        float newY = pos.y() + allowedY;
+        
+        if (allowedX != 0f || allowedY != 0f) {
+            entity.addComponent(new PositionComponent(newX, newY));
+            
+            if (eventBus != null) {
+                int tileSize = tileMap.getTileSize();
+                int oldTileX = (int) Math.floor((pos.x() + width / 2f) / tileSize);
+                int oldTileY = (int) Math.floor((pos.y() + height / 2f) / tileSize);
+                int newTileX = (int) Math.floor((newX + width / 2f) / tileSize);
+                int newTileY = (int) Math.floor((newY + height / 2f) / tileSize);
+                if (oldTileX != newTileX || oldTileY != newTileY) {
+                    eventBus.publishTileCrossed(entity.id(), newTileX, newTileY);
                 }
             }
         }
     }
     
-    private boolean canMoveTo(float x, float y) {
-        int tileX = (int) (x / tileMap.getTileSize());
-        int tileY = (int) (y / tileMap.getTileSize());
-        return !tileMap.isSolid(tileX, tileY);
+    private void resolveEntityCollisions() {
+        int pairs = broadphase.findPairs();
+        
+        for (int i = 0; i < pairs; i++) {
+            Entity a = bodies.get(broadphase.getPairA(i));
+            Entity b = bodies.get(broadphase.getPairB(i));
+            
+            boolean aDynamic = a.hasComponent(VelocityComponent.class);
+            boolean bDynamic = b.hasComponent(VelocityComponent.class);
+            if (!aDynamic && !bDynamic) continue;
+            
+            // Narrowphase on current positions, earlier resolutions may already have separated the pair
+            var posA = a.getComponent(PositionComponent.class);
+            var posB = b.getComponent(PositionComponent.class);
+            var sizeA = a.getComponent(RenderComponent.class);
+            var sizeB = b.getComponent(RenderComponent.class);
+            
+            float overlapX = Math.min(posA.x() + sizeA.width(), posB.x() + sizeB.width()) - Math.max(posA.x(), posB.x());
+            float overlapY = Math.min(posA.y() + sizeA.height(), posB.y() + sizeB.height()) - Math.max(posA.y(), posB.y());
+            if (overlapX <= 0f || overlapY <= 0f) continue;
+            
+            if (eventBus != null) {
+                eventBus.publishCollision(a.id(), b.id());
+            }
+            
+            // Push apart along the axis of least penetration
+            float pushX = 0f, pushY = 0f;
+            if (overlapX < overlapY) {
+                pushX = posA.x() < posB.x() ? -overlapX : overlapX;
+            } else {
+                pushY = posA.y() < posB.y() ? -overlapY : overlapY;
+            }
+            
+            if (aDynamic && bDynamic) {
+                move(a, pushX * 0.5f, pushY * 0.5f);
+                move(b, -pushX * 0.5f, -pushY * 0.5f);
+            } else if (aDynamic) {
+                move(a, pushX, pushY);
+            } else {
+                move(b, -pushX, -pushY);
+            }
+        }
+    }
+    
+    public int getBodyCount() {
+        return broadphase.getCount();
+    }
+    
+    public int getContactCount() {
+        return broadphase.getPairCount();
     }
 }
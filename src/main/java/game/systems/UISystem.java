@@ -1,33 +1,57 @@
 package game.systems;
 
 import engine.ecs.*;
+import engine.graphics.GlyphAtlas;
+import engine.graphics.TextElement;
+import engine.graphics.UIOverlay;
 
+import java.awt.Color;
 import java.util.List;
 
 public class UISystem implements GameSystem {
-    private final InteractionSystem interactionSystem;
+    private static final Color PANEL_COLOR = new Color(0, 0, 0, 180);
     
-    public UISystem(InteractionSystem interactionSystem) {
-        this.interactionSystem = interactionSystem;
+    private final TextElement controls;
+    private final TextElement messageBox;
+    private String currentMessage = null;
+    private float messageTimer = 0f;
+    private final float MESSAGE_DURATION = 3f; // 3 seconds
+    
+    public UISystem(EventBus eventBus, UIOverlay overlay) {
+        GlyphAtlas atlas = GlyphAtlas.monospaced(14, Color.WHITE);
+        controls = overlay.addText(atlas, PANEL_COLOR, 8, 8, "WASD: Move | SPACE: Interact | ESC: Quit");
+        messageBox = overlay.addText(atlas, PANEL_COLOR, 8, 520, null);
+        
+        eventBus.subscribe(this::onInteraction, GameEvent.Type.INTERACTION_TRIGGERED);
+    }
+    
+    private void onInteraction(GameEvent event) {
+        currentMessage = event.message();
+        messageTimer = MESSAGE_DURATION;
+        messageBox.setText(currentMessage);
     }
     
     @Override
     public void update(List<Entity> entities, float deltaTime) {
-        // UI updates handled in render method
+        // Update message timer
+        if (currentMessage != null) {
+            messageTimer -= deltaTime;
+            if (messageTimer <= 0) {
+                currentMessage = null;
+                messageBox.setText(null);
+            }
+        }
     }
     
-    public void render() {
-        renderControls();
-        renderMessageBox();
+    public TextElement getControls() {
+        return controls;
     }
     
-    private void renderControls() {
-        System.out.print("🎮 WASD: Move | SPACE: Interact | ESC: Quit ");
+    public String getCurrentMessage() {
+        return currentMessage;
     }
     
-    private void renderMessageBox() {
-        if (interactionSystem.hasMessage()) {
-            System.out.print("📝 [" + interactionSystem.getCurrentMessage() + "] ");
-        }
+    public boolean hasMessage() {
+        return currentMessage != null;
     }
 }